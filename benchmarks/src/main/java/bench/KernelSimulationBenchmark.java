@@ -0,0 +1,51 @@
+package bench;
+
+import kernel.OSKernel;
+import org.openjdk.jmh.annotations.*;
+import scheduling.Scheduler;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full OSKernel.runSimulation runs, from an empty kernel to the last process terminating.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dos.trace=none")
+@State(Scope.Thread)
+public class KernelSimulationBenchmark {
+
+    @Param({"ROUND_ROBIN", "PRIORITY_BASED", "MIXED", "MLFQ", "CFS", "EDF", "SRTF", "LOTTERY", "STRIDE"})
+    public Scheduler.SchedulingAlgorithm algorithm;
+
+    @Param({"TICK", "EVENT_DRIVEN"})
+    public OSKernel.SimulationMode mode;
+
+    @Param({"100", "1000"})
+    public int processes;
+
+    @Param({"1", "4"})
+    public int cores;
+
+    private OSKernel kernel;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        kernel = new OSKernel(algorithm, 3, cores);
+        kernel.setVerbose(false);
+        kernel.setSimulationMode(mode);
+        Random random = new Random(42);
+        for (int i = 0; i < processes; i++) {
+            kernel.createProcess("P" + i, 1 + random.nextInt(10), 1 + random.nextInt(50), random.nextInt(processes * 5));
+        }
+    }
+
+    @Benchmark
+    public int runSimulation() {
+        kernel.runSimulation(Integer.MAX_VALUE);
+        return kernel.getSimulationTime();
+    }
+}
@@ -0,0 +1,68 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import process.Process;
+import process.ProcessTable;
+import scheduling.Scheduler;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler hot paths for each SchedulingAlgorithm with 1e3 to 1e6 processes queued.
+ * Every operation leaves the queue size unchanged, so each measurement sees the same depth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchedulerBenchmark {
+
+    @Param({"ROUND_ROBIN", "PRIORITY_BASED", "MIXED", "MLFQ", "CFS", "EDF", "SRTF", "LOTTERY", "STRIDE"})
+    public Scheduler.SchedulingAlgorithm algorithm;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int queued;
+
+    private Scheduler scheduler;
+    private ProcessTable table;
+    private Process[] spares;
+    private int nextSpare;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = new Scheduler(algorithm, 3);
+        table = new ProcessTable(queued + 1024);
+        Random random = new Random(42);
+        for (int i = 0; i < queued; i++) {
+            scheduler.addProcess(table.add(1 + random.nextInt(10), 1_000_000));
+        }
+        spares = new Process[1024];
+        for (int i = 0; i < spares.length; i++) {
+            spares[i] = table.add(1 + random.nextInt(10), 1_000_000);
+        }
+        nextSpare = 0;
+    }
+
+    // round trip of a context switch: take the next process, put it back
+    @Benchmark
+    public Process getNextAndRequeue() {
+        Process p = scheduler.getNextProcess();
+        scheduler.requeueProcess(p);
+        return p;
+    }
+
+    // admission of a new process, balanced by a pick
+    @Benchmark
+    public Process addAndGetNext() {
+        Process spare = spares[nextSpare];
+        nextSpare = (nextSpare + 1) & (spares.length - 1);
+        scheduler.addProcess(spare);
+        Process p = scheduler.getNextProcess();
+        // keep the spare pool intact: whatever came out becomes the next spare
+        spares[(nextSpare + spares.length - 1) & (spares.length - 1)] = p;
+        return p;
+    }
+}
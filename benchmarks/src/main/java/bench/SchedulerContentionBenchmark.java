@@ -0,0 +1,78 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import process.Process;
+import process.ProcessTable;
+import scheduling.Scheduler;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on one shared Scheduler: every thread loops getNextProcess + requeueProcess.
+ * Compares the monitor-based backend with the lock-free striped one as threads are added:
+ * threadsN runs the same loop on N threads, so one run sweeps 1, 2, 4 and 8 threads.
+ * Scores are total operations per second over all threads; scaling needs at least as many
+ * CPUs as threads.
+ *
+ *   java -jar benchmarks/target/benchmarks.jar SchedulerContentionBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchedulerContentionBenchmark {
+    private static final int PREFILL = 10_000;
+
+    @Param({"MIXED", "ROUND_ROBIN"})
+    public Scheduler.SchedulingAlgorithm algorithm;
+
+    @Param({"false", "true"})
+    public boolean concurrent;
+
+    private Scheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = new Scheduler(algorithm, 3, concurrent);
+        ProcessTable table = new ProcessTable(PREFILL);
+        Random random = new Random(42);
+        for (int i = 0; i < PREFILL; i++) {
+            scheduler.addProcess(table.add(1 + random.nextInt(10), 1_000_000));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Process threads1() {
+        return getNextAndRequeue();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Process threads2() {
+        return getNextAndRequeue();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Process threads4() {
+        return getNextAndRequeue();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Process threads8() {
+        return getNextAndRequeue();
+    }
+
+    private Process getNextAndRequeue() {
+        Process p = scheduler.getNextProcess();
+        if (p != null) {
+            scheduler.requeueProcess(p);
+        }
+        return p;
+    }
+}
@@ -33,7 +33,7 @@ echo ""
 # Step 5: Compile all Java files
 echo "🔨 Compiling Java source files..."
 echo "   Compiling: process classes..."
-javac -d bin src/process/ProcessState.java src/process/Process.java src/process/Thread.java
+javac -d bin src/process/ProcessState.java src/process/Process.java src/process/ProcessTable.java src/process/Thread.java src/process/IoBurst.java
 if [ $? -eq 0 ]; then
     echo "   ✓ Process classes compiled"
 else
@@ -42,7 +42,7 @@ else
 fi
 
 echo "   Compiling: scheduling classes..."
-javac -d bin src/scheduling/Scheduler.java
+javac -d bin -cp bin src/scheduling/*.java
 if [ $? -eq 0 ]; then
     echo "   ✓ Scheduler class compiled"
 else
@@ -51,7 +51,7 @@ else
 fi
 
 echo "   Compiling: dispatcher classes..."
-javac -d bin src/dispatcher/Dispatcher.java
+javac -d bin -cp bin src/dispatcher/*.java
 if [ $? -eq 0 ]; then
     echo "   ✓ Dispatcher class compiled"
 else
@@ -59,8 +59,17 @@ else
     exit 1
 fi
 
+echo "   Compiling: device classes..."
+javac -d bin -cp bin src/device/*.java
+if [ $? -eq 0 ]; then
+    echo "   ✓ Device classes compiled"
+else
+    echo "   ✗ Error compiling devices"
+    exit 1
+fi
+
 echo "   Compiling: kernel classes..."
-javac -d bin src/kernel/OSKernel.java
+javac -d bin -cp bin src/kernel/*.java
 if [ $? -eq 0 ]; then
     echo "   ✓ Kernel class compiled"
 else
@@ -4,6 +4,7 @@ import process.Thread;
 import process.ProcessState;
 import scheduling.Scheduler;
 import dispatcher.Dispatcher;
+import dispatcher.TraceDrainer;
 import java.util.*;
 import java.text.SimpleDateFormat;
 import java.util.concurrent.*;
@@ -13,19 +14,19 @@ import java.util.concurrent.*;
  * Demonstrates OS kernel operations with two concurrent threads:
  * 1. SchedulerThread - Manages process scheduling
  * 2. DispatcherThread - Manages process execution on CPU
+ * The threads take turns in lock-step on a phaser (scheduler stage, then one dispatcher
+ * cycle), so every run prints the same interleaving and runs as fast as the CPU allows.
+ * Usage: OSSimulation [millisPerTimeUnit] - optional real-time pacing for demos (default 0).
  */
 public class OSSimulation {
     private static OSKernel kernel;
-    private static final Object lockObject = new Object();
     private static volatile boolean simulationComplete = false;
-
-    private static boolean isAllProcessesTerminated() {
-        List<Process> all = kernel.getProcesses();
-        return all.stream().allMatch(p -> p.getState() == ProcessState.TERMINATED);
-    }
+    // 2 parties; each cycle is two phases: scheduler's turn, then dispatcher's turn
+    private static final Phaser stepBarrier = new Phaser(2);
+    private static long pacingMillis = 0;
 
     private static boolean shouldStopNow() {
-        return isAllProcessesTerminated() && kernel.getDispatcher().isCPUIdle();
+        return kernel.isAllProcessesTerminated() && kernel.getDispatcher().isCPUIdle();
     }
 
     /**
@@ -36,12 +37,14 @@ public class OSSimulation {
         private OSKernel kernel;
         private int duration;
         private List<String> schedulerLog;
+        private TraceDrainer trace; // rendered in this stage, so it interleaves the same way every run
 
-        public SchedulerThread(OSKernel kernel, int duration) {
+        public SchedulerThread(OSKernel kernel, int duration, TraceDrainer trace) {
             super("OS-Scheduler-Thread");
             this.kernel = kernel;
             this.duration = duration;
             this.schedulerLog = new ArrayList<>();
+            this.trace = trace;
         }
 
         @Override
@@ -55,47 +58,40 @@ public class OSSimulation {
             int cycleCount = 0;
             int lastLoggedTime = -1;
             
-            while (!simulationComplete && cycleCount < duration) {
-                synchronized (lockObject) {
-                    Scheduler scheduler = kernel.getScheduler();
-
-                    // Stop as soon as all processes are done and CPU is idle.
-                    if (shouldStopNow()) {
-                        simulationComplete = true;
-                        break;
-                    }
-
-                    // Avoid printing duplicates when scheduler thread is faster than dispatcher.
-                    int now = scheduler.getCurrentTime();
-                    if (now == lastLoggedTime) {
-                        // Still count the cycle (thread did work), but skip noisy log.
-                        // This keeps output cleaner and more deterministic looking.
-                    } else {
-                        lastLoggedTime = now;
-                    
-                        String logEntry = String.format(
-                            "[SCHEDULER] Time: %d | Ready Queue Size: %d | Processes: %d Ready, %d Running, %d Terminated",
-                            now,
-                            scheduler.getReadyQueueSize(),
-                            scheduler.getProcessesByState(ProcessState.READY).size(),
-                            scheduler.getProcessesByState(ProcessState.RUNNING).size(),
-                            scheduler.getProcessesByState(ProcessState.TERMINATED).size()
-                        );
-                        schedulerLog.add(logEntry);
-                        System.out.println(logEntry);
-                    }
+            while (cycleCount < duration) {
+                // Scheduler's turn: the dispatcher is parked at the barrier, so the state is stable
+                Scheduler scheduler = kernel.getScheduler();
+                trace.drainNow();
+
+                // Only log when the dispatcher moved time forward (it stays put once the CPU idles)
+                int now = scheduler.getCurrentTime();
+                if (now != lastLoggedTime) {
+                    lastLoggedTime = now;
+                
+                    String logEntry = String.format(
+                        "[SCHEDULER] Time: %d | Ready Queue Size: %d | Processes: %d Ready, %d Running, %d Terminated",
+                        now,
+                        scheduler.getReadyQueueSize(),
+                        scheduler.getStateCount(ProcessState.READY),
+                        scheduler.getStateCount(ProcessState.RUNNING),
+                        scheduler.getStateCount(ProcessState.TERMINATED)
+                    );
+                    schedulerLog.add(logEntry);
+                    System.out.println(logEntry);
                 }
                 
                 cycleCount++;
-                try {
-                    java.lang.Thread.sleep(100); // Simulate scheduling overhead
-                } catch (InterruptedException e) {
-                    java.lang.Thread.currentThread().interrupt();
+                stepBarrier.arriveAndAwaitAdvance(); // hand over to the dispatcher
+                stepBarrier.arriveAndAwaitAdvance(); // dispatcher cycle done
+                if (simulationComplete) {
+                    break;
                 }
             }
+            trace.drainNow();
 
             System.out.println("\n[SCHEDULER THREAD] Completed - Processed " + cycleCount + " cycles");
             printSchedulerStatistics(schedulerLog);
+            stepBarrier.arrive(); // let the dispatcher print its summary after ours
         }
 
         private void printSchedulerStatistics(List<String> logs) {
@@ -129,45 +125,60 @@ public class OSSimulation {
 
         @Override
         public void run() {
-            System.out.println("\n[DISPATCHER THREAD] Started - PID: " + java.lang.Thread.currentThread().getId());
-            System.out.println("[DISPATCHER THREAD] CPU Time Quantum: " + 
-                kernel.getScheduler().getTimeQuantum() + " units\n");
-
             int cycleCount = 0;
             
-            while (!simulationComplete && cycleCount < duration) {
-                synchronized (lockObject) {
-                    kernel.runKernelCycle();
-                    
-                    Dispatcher dispatcher = kernel.getDispatcher();
-                    Process currentProcess = dispatcher.getCurrentRunningProcess();
-                    
-                    String logEntry = String.format(
-                        "[DISPATCHER] Time: %d | CPU Time: %d | Current Process: %s",
-                        kernel.getScheduler().getCurrentTime(),
-                        dispatcher.getCPUTimeUsed(),
-                        currentProcess != null ? currentProcess.getProcessName() : "IDLE"
-                    );
-                    dispatcherLog.add(logEntry);
+            while (cycleCount < duration) {
+                stepBarrier.arriveAndAwaitAdvance(); // wait for the scheduler stage
+                if (cycleCount == 0) {
+                    System.out.println("\n[DISPATCHER THREAD] Started - PID: " + java.lang.Thread.currentThread().getId());
+                    System.out.println("[DISPATCHER THREAD] CPU Time Quantum: " + 
+                        kernel.getScheduler().getTimeQuantum() + " units\n");
                 }
+
+                // Only this thread advances the kernel
+                kernel.runKernelCycle();
+                
+                Dispatcher dispatcher = kernel.getDispatcher();
+                Process currentProcess = dispatcher.getCurrentRunningProcess();
+                
+                String logEntry = String.format(
+                    "[DISPATCHER] Time: %d | CPU Time: %d | Current Process: %s",
+                    kernel.getScheduler().getCurrentTime(),
+                    dispatcher.getCPUTimeUsed(),
+                    currentProcess != null ? currentProcess.getProcessName() : "IDLE"
+                );
+                dispatcherLog.add(logEntry);
                 
                 cycleCount++;
-                try {
-                    java.lang.Thread.sleep(150); // Simulate dispatch overhead
-                } catch (InterruptedException e) {
-                    java.lang.Thread.currentThread().interrupt();
-                }
+                pace();
                 
-                // Stop as soon as all processes are done and CPU is idle.
-                if (shouldStopNow()) {
+                // Stop as soon as all processes are done and CPU is idle, or at the cycle cap.
+                // Decided before arriving, so both threads leave the loop after the same cycle.
+                if (shouldStopNow() || cycleCount >= duration) {
                     simulationComplete = true;
                 }
+                stepBarrier.arriveAndAwaitAdvance();
+                if (simulationComplete) {
+                    break;
+                }
             }
+            stepBarrier.arriveAndAwaitAdvance(); // scheduler summary printed
 
             System.out.println("\n[DISPATCHER THREAD] Completed - Processed " + cycleCount + " cycles");
             printDispatcherStatistics();
         }
 
+        // Optional real-time pacing; an interrupt ends the run at the end of this cycle
+        private void pace() {
+            if (pacingMillis <= 0) return;
+            try {
+                java.lang.Thread.sleep(pacingMillis);
+            } catch (InterruptedException e) {
+                java.lang.Thread.currentThread().interrupt();
+                simulationComplete = true;
+            }
+        }
+
         private void printDispatcherStatistics() {
             System.out.println("\n========== DISPATCHER THREAD STATISTICS ==========");
             Dispatcher dispatcher = kernel.getDispatcher();
@@ -187,12 +198,16 @@ public class OSSimulation {
      * Main method to run the simulation
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            pacingMillis = Math.max(0, Long.parseLong(args[0]));
+        }
+
         System.out.println("============================================================");
         System.out.println("  OS KERNEL SIMULATION - Multi-threaded Demo");
         System.out.println("  Demonstrating Scheduling, Dispatching & Threading");
         System.out.println("============================================================\n");
 
-        kernel = new OSKernel(Scheduler.SchedulingAlgorithm.MIXED, 3);
+        kernel = new OSKernel(new Scheduler(Scheduler.SchedulingAlgorithm.MIXED, 3, true), 1);
 
         // Create sample processes
         System.out.println("========== CREATING PROCESSES ==========");
@@ -222,7 +237,9 @@ public class OSSimulation {
         System.out.println("========== STARTING KERNEL THREADS ==========\n");
         
         // Safety cap on thread loops. Real stop condition is "all processes terminated + CPU idle".
-        SchedulerThread schedulerThread = new SchedulerThread(kernel, 200);
+        // Dispatcher events are recorded in binary and rendered by the scheduler stage
+        TraceDrainer trace = new TraceDrainer(List.of(kernel.getDispatcher()), System.out::println, 0);
+        SchedulerThread schedulerThread = new SchedulerThread(kernel, 200, trace);
         DispatcherThread dispatcherThread = new DispatcherThread(kernel, 200);
 
         long startTime = System.currentTimeMillis();
@@ -253,11 +270,18 @@ public class OSSimulation {
         }
         System.out.println("========================================\n");
 
+        System.out.println("========== FINAL THREAD STATES ==========");
+        for (Process p : allProcesses) {
+            for (Thread t : kernel.getProcessThreads(p.getPID())) {
+                System.out.println(t);
+            }
+        }
+        System.out.println("========================================\n");
+
         System.out.println("========== EXECUTION SUMMARY ==========");
         System.out.println("Total Execution Time: " + (endTime - startTime) + " ms");
-        System.out.println("Total Processes Created: " + allProcesses.size());
-        System.out.println("Processes Completed: " + 
-            allProcesses.stream().filter(p -> p.getState() == ProcessState.TERMINATED).count());
+        System.out.println("Total Processes Created: " + kernel.getCreatedProcessCount());
+        System.out.println("Processes Completed: " + kernel.getCompletedProcessCount());
         System.out.println("CPU Time Used: " + kernel.getDispatcher().getCPUTimeUsed() + " units");
         System.out.println("=====================================\n");
 
@@ -273,6 +297,6 @@ public class OSSimulation {
         System.out.println("✓ Two-threaded OS simulation completed successfully!");
         System.out.println("  - Scheduler Thread managed ready queue");
         System.out.println("  - Dispatcher Thread executed processes on CPU");
-        System.out.println("  - Both threads ran concurrently demonstrating multithreading");
+        System.out.println("  - Both threads ran concurrently, in lock-step on a phaser");
     }
 }
@@ -0,0 +1,275 @@
+package device;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Simulated I/O device with its own request queue. Blocked processes queue here and are
+ * served one at a time; a request takes its transfer length plus seekTime per track the
+ * head has to move, and at least one time unit.
+ *   - FIFO serves requests in arrival order
+ *   - ELEVATOR (LOOK) keeps moving the head one way, serving the nearest track ahead,
+ *     and turns around when nothing is left ahead, so seeks stay short under load
+ * The device only keeps the queue; the kernel posts an event for each completion time.
+ */
+public class Device {
+
+    public enum Discipline {
+        FIFO("First come, first served"),
+        ELEVATOR("Elevator (LOOK)");
+
+        private final String displayName;
+
+        Discipline(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final int id;
+    private final String name;
+    private final Discipline discipline;
+    private final int seekTime;                       // per track moved
+    private final ArrayDeque<Request> fifo;           // FIFO: arrival order
+    private final TreeMap<Integer, ArrayDeque<Request>> byTrack; // ELEVATOR: FIFO per track
+    private int queued;
+    private Request current;                          // request being served, null when idle
+    private int completionTime;
+    private int headTrack;
+    private boolean movingUp;
+    private long busyTime;
+    private long completedCount;
+    private long seekDistance;
+    private int maxQueued;
+
+    // A queued or running request
+    private static class Request {
+        final Process process;
+        final int track;
+        final int submitTime;
+
+        Request(Process process, int track, int submitTime) {
+            this.process = process;
+            this.track = track;
+            this.submitTime = submitTime;
+        }
+    }
+
+    public Device(int id, String name, Discipline discipline, int seekTime) {
+        this.id = id;
+        this.name = name;
+        this.discipline = discipline;
+        this.seekTime = Math.max(0, seekTime);
+        this.fifo = new ArrayDeque<>();
+        this.byTrack = new TreeMap<>();
+        this.queued = 0;
+        this.current = null;
+        this.completionTime = -1;
+        this.headTrack = 0;
+        this.movingUp = true;
+        this.busyTime = 0;
+        this.completedCount = 0;
+        this.seekDistance = 0;
+        this.maxQueued = 0;
+    }
+
+    /**
+     * Queue the next I/O burst of a blocked process; true if the device was idle and
+     * started serving it at once (see getCompletionTime)
+     */
+    public synchronized boolean submit(Process process, int now) {
+        Request request = new Request(process, process.getIoTrack(), now);
+        if (current == null) {
+            start(request, now);
+            return true;
+        }
+        enqueue(request);
+        maxQueued = Math.max(maxQueued, queued);
+        return false;
+    }
+
+    private void enqueue(Request request) {
+        if (discipline == Discipline.ELEVATOR) {
+            byTrack.computeIfAbsent(request.track, t -> new ArrayDeque<>()).add(request);
+        } else {
+            fifo.add(request);
+        }
+        queued++;
+    }
+
+    /**
+     * Finish the request in service (due at 'now') and start the next one.
+     * Returns the process whose I/O is done; the caller wakes it.
+     */
+    public synchronized Process complete(int now) {
+        Request done = current;
+        if (done == null) {
+            throw new IllegalStateException("Device " + name + " has no request in service");
+        }
+        done.process.addIoTime(now - done.submitTime);
+        completedCount++;
+        current = null;
+        completionTime = -1;
+        Request next = nextRequest();
+        if (next != null) {
+            start(next, now);
+        }
+        return done.process;
+    }
+
+    private void start(Request request, int now) {
+        int distance = Math.abs(request.track - headTrack);
+        int serviceTime = Math.max(1, request.process.getIoLength() + seekTime * distance);
+        if (request.track != headTrack) {
+            movingUp = request.track > headTrack;
+        }
+        headTrack = request.track;
+        seekDistance += distance;
+        busyTime += serviceTime;
+        current = request;
+        completionTime = now + serviceTime;
+    }
+
+    private Request nextRequest() {
+        if (queued == 0) return null;
+        queued--;
+        if (discipline != Discipline.ELEVATOR) {
+            return fifo.poll();
+        }
+        // nearest track ahead of the head, or turn around
+        Map.Entry<Integer, ArrayDeque<Request>> entry = movingUp ? byTrack.ceilingEntry(headTrack) : byTrack.floorEntry(headTrack);
+        if (entry == null) {
+            entry = movingUp ? byTrack.floorEntry(headTrack) : byTrack.ceilingEntry(headTrack);
+        }
+        Request request = entry.getValue().poll();
+        if (entry.getValue().isEmpty()) {
+            byTrack.remove(entry.getKey());
+        }
+        return request;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Discipline getDiscipline() {
+        return discipline;
+    }
+
+    public int getSeekTime() {
+        return seekTime;
+    }
+
+    public synchronized boolean isBusy() {
+        return current != null;
+    }
+
+    // process being served, null when idle
+    public synchronized Process getCurrentProcess() {
+        return current != null ? current.process : null;
+    }
+
+    // time the request in service finishes, -1 when idle
+    public synchronized int getCompletionTime() {
+        return completionTime;
+    }
+
+    public synchronized int getQueueLength() {
+        return queued;
+    }
+
+    public synchronized int getMaxQueueLength() {
+        return maxQueued;
+    }
+
+    // time spent serving requests (counted when each one starts)
+    public synchronized long getBusyTime() {
+        return busyTime;
+    }
+
+    public synchronized long getCompletedCount() {
+        return completedCount;
+    }
+
+    public synchronized long getSeekDistance() {
+        return seekDistance;
+    }
+
+    /**
+     * Fraction of the elapsed time the device was serving requests
+     */
+    public synchronized double getUtilization(int elapsed) {
+        return elapsed <= 0 ? 0.0 : Math.min(1.0, (double) busyTime / elapsed);
+    }
+
+    /**
+     * Checkpoint: the request in service, the queue in order, head position and counters
+     */
+    public synchronized void writeState(DataOutput out) throws IOException {
+        out.writeBoolean(current != null);
+        if (current != null) {
+            writeRequest(out, current);
+        }
+        out.writeInt(completionTime);
+        out.writeInt(queued);
+        for (Request request : fifo) {
+            writeRequest(out, request);
+        }
+        for (ArrayDeque<Request> track : byTrack.values()) {
+            for (Request request : track) {
+                writeRequest(out, request);
+            }
+        }
+        out.writeInt(headTrack);
+        out.writeBoolean(movingUp);
+        out.writeLong(busyTime);
+        out.writeLong(completedCount);
+        out.writeLong(seekDistance);
+        out.writeInt(maxQueued);
+    }
+
+    // restore into a new device with the same discipline; PIDs are turned back into processes by 'processes'
+    public synchronized void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        current = in.readBoolean() ? readRequest(in, processes) : null;
+        completionTime = in.readInt();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            enqueue(readRequest(in, processes));
+        }
+        headTrack = in.readInt();
+        movingUp = in.readBoolean();
+        busyTime = in.readLong();
+        completedCount = in.readLong();
+        seekDistance = in.readLong();
+        maxQueued = in.readInt();
+    }
+
+    private static void writeRequest(DataOutput out, Request request) throws IOException {
+        out.writeInt(request.process.getPID());
+        out.writeInt(request.track);
+        out.writeInt(request.submitTime);
+    }
+
+    private static Request readRequest(DataInput in, IntFunction<Process> processes) throws IOException {
+        Process process = processes.apply(in.readInt());
+        int track = in.readInt();
+        return new Request(process, track, in.readInt());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("[Device %d: %s, %s, Queue: %d, Busy: %s]",
+            id, name, discipline.getDisplayName(), queued, current != null);
+    }
+}
@@ -3,41 +3,103 @@ package dispatcher;
 import process.Process;
 import process.ProcessState;
 import scheduling.Scheduler;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 // CPU dispatcher: picks process, executes, handles context switch
 public class Dispatcher {
     private Scheduler scheduler;
+    private final int coreId;
+    private final boolean tagLogWithCore; // multi-core runs prefix log lines with the core
     private Process currentRunningProcess;
     private int timeSliceCounter;
     private int cpuTimeUsed;
+    private int busyTime;       // units spent executing a process
+    private int migrations;     // processes stolen from other cores
+    private int processSwitchCost;  // units lost when the CPU switches to another process
+    private int threadSwitchCost;   // units lost switching between threads of one process (cheaper)
+    private int switchOverhead;     // switch units still to pay before the current process runs
+    private int switchTime;         // units lost to switches so far
+    private int processSwitches;
+    private int threadSwitches;
+    private int lastPid;            // entity that ran last, -1 before the first dispatch
+    private int lastOwnerPid;       // process (address space) that ran last
+    private Consumer<Process> terminationListener; // told about every process that terminates, may be null
+    private Consumer<Process> ioListener;          // gets processes blocking for I/O; null: I/O takes no time
     private int currentSliceStartTime;
-    private List<String> dispatchLog;
+    private TraceBuffer trace;                     // binary event trace, rendered only on demand
+    private boolean tracing;
+    private IntFunction<Process> processResolver;  // PID -> process, used when reading traces back
     private List<ProcessExecution> executionHistory;
+    private SliceIndex historyIndex;               // time and PID index over executionHistory
+    private ExecutionHistoryFile historyFile;      // when set, slices go to disk instead of executionHistory
+    private boolean keepHistory;                   // false: without a history file, slices are only counted
+    private int historyCount;
 
     public static class ProcessExecution {
         public Process process;
         public int startTime;
         public int endTime;
         public String reason;
+        public int coreId;
 
         public ProcessExecution(Process process, int startTime, int endTime, String reason) {
+            this(process, startTime, endTime, reason, 0);
+        }
+
+        public ProcessExecution(Process process, int startTime, int endTime, String reason, int coreId) {
             this.process = process;
             this.startTime = startTime;
             this.endTime = endTime;
             this.reason = reason;
+            this.coreId = coreId;
         }
     }
 
     // init dispatcher
     public Dispatcher(Scheduler scheduler) {
+        this(scheduler, 0, false);
+    }
+
+    // init dispatcher for one core of a multi-core CPU
+    public Dispatcher(Scheduler scheduler, int coreId) {
+        this(scheduler, coreId, true);
+    }
+
+    private Dispatcher(Scheduler scheduler, int coreId, boolean tagLogWithCore) {
         this.scheduler = scheduler;
+        this.coreId = coreId;
+        this.tagLogWithCore = tagLogWithCore;
         this.currentRunningProcess = null;
         this.timeSliceCounter = 0;
         this.cpuTimeUsed = 0;
+        this.busyTime = 0;
+        this.migrations = 0;
+        this.processSwitchCost = 0;
+        this.threadSwitchCost = 0;
+        this.switchOverhead = 0;
+        this.switchTime = 0;
+        this.processSwitches = 0;
+        this.threadSwitches = 0;
+        this.lastPid = -1;
+        this.lastOwnerPid = -1;
+        this.terminationListener = null;
+        this.ioListener = null;
         this.currentSliceStartTime = -1;
-        this.dispatchLog = new ArrayList<>();
+        this.trace = new TraceBuffer();
+        this.tracing = TraceBuffer.ENABLED;
+        this.processResolver = scheduler::findProcess;
         this.executionHistory = new ArrayList<>();
+        this.historyIndex = new SliceIndex();
+        this.historyFile = null;
+        this.keepHistory = true;
+        this.historyCount = 0;
     }
 
     // pick next process, handle switch/terminate
@@ -46,36 +108,26 @@ public class Dispatcher {
         if (currentRunningProcess != null) {
             // Check if process is complete
             if (currentRunningProcess.isComplete()) {
-                currentRunningProcess.setState(ProcessState.TERMINATED);
-                currentRunningProcess.setEndTime(cpuTimeUsed);
-                log("PROCESS TERMINATED: " + currentRunningProcess.getProcessName() + 
-                    " completed execution at time " + cpuTimeUsed);
-                executionHistory.add(new ProcessExecution(
-                    currentRunningProcess,
-                    currentSliceStartTime,
-                    cpuTimeUsed,
-                    "COMPLETED"
-                ));
+                finish(currentRunningProcess);
                 currentRunningProcess = null;
                 timeSliceCounter = 0;
                 currentSliceStartTime = -1;
             }
-            // Check if time quantum expired
-            else if (timeSliceCounter >= scheduler.getTimeQuantum()) {
-                log("CONTEXT SWITCH: Suspending " + currentRunningProcess.getProcessName() + 
-                    " (Time quantum expired)");
-                currentRunningProcess.setState(ProcessState.READY);
-                scheduler.requeueProcess(currentRunningProcess);
-                executionHistory.add(new ProcessExecution(
-                    currentRunningProcess,
-                    currentSliceStartTime,
-                    cpuTimeUsed,
-                    "TIME_QUANTUM_EXPIRED"
-                ));
+            // Check if the CPU burst is done and the process waits for a device
+            else if (currentRunningProcess.needsIo()) {
+                startIo(currentRunningProcess);
                 currentRunningProcess = null;
                 timeSliceCounter = 0;
                 currentSliceStartTime = -1;
             }
+            // Check if time quantum expired
+            else if (timeSliceCounter >= scheduler.getTimeQuantum(currentRunningProcess)) {
+                switchOut(TraceBuffer.EventType.CONTEXT_SWITCH, "TIME_QUANTUM_EXPIRED");
+            }
+            // Check if a waiting job should go first (EDF: earlier deadline, SRTF: shorter remaining burst)
+            else if (scheduler.shouldPreempt(currentRunningProcess)) {
+                switchOut(TraceBuffer.EventType.PREEMPT, "PREEMPTED");
+            }
         }
 
         // Select next process from ready queue
@@ -83,32 +135,147 @@ public class Dispatcher {
             currentRunningProcess = scheduler.getNextProcess();
             if (currentRunningProcess != null) {
                 currentRunningProcess.setState(ProcessState.RUNNING);
+                switchOverhead = switchCostTo(currentRunningProcess);
+                // the slice starts once the switch is paid for
+                int runStart = cpuTimeUsed + switchOverhead;
                 if (currentRunningProcess.getStartTime() < 0) {
-                    currentRunningProcess.setStartTime(cpuTimeUsed);
+                    currentRunningProcess.setStartTime(runStart);
                 }
                 timeSliceCounter = 0;
-                currentSliceStartTime = cpuTimeUsed;
-                log("DISPATCH: Process " + currentRunningProcess.getProcessName() + 
-                    " (PID: " + currentRunningProcess.getPID() + ") assigned to CPU at time " + cpuTimeUsed);
+                currentSliceStartTime = runStart;
+                trace(TraceBuffer.EventType.DISPATCH, currentRunningProcess, 0);
             }
         }
     }
 
+    // The running process goes back to the ready queue
+    private void switchOut(TraceBuffer.EventType event, String reason) {
+        trace(event, currentRunningProcess, 0);
+        currentRunningProcess.setState(ProcessState.READY);
+        scheduler.requeueProcess(currentRunningProcess);
+        recordExecution(new ProcessExecution(
+            currentRunningProcess,
+            currentSliceStartTime,
+            cpuTimeUsed,
+            reason,
+            coreId
+        ));
+        currentRunningProcess = null;
+        timeSliceCounter = 0;
+        currentSliceStartTime = -1;
+    }
+
+    /**
+     * True if a queued process should take this core from the running one (EDF, SRTF)
+     */
+    public synchronized boolean shouldPreempt() {
+        return currentRunningProcess != null && scheduler.shouldPreempt(currentRunningProcess);
+    }
+
+    // Cost of switching the CPU to next: nothing to resume the same entity, less between threads of one process
+    private int switchCostTo(Process next) {
+        int pid = next.getPID();
+        int ownerPid = next.isThread() ? next.getParentPID() : pid;
+        int cost;
+        if (pid == lastPid) {
+            cost = 0;
+        } else if (ownerPid == lastOwnerPid) {
+            threadSwitches++;
+            cost = threadSwitchCost;
+        } else {
+            processSwitches++;
+            cost = processSwitchCost;
+        }
+        lastPid = pid;
+        lastOwnerPid = ownerPid;
+        return cost;
+    }
+
+    // The process leaves the CPU blocked; the I/O listener queues it on its device
+    private void startIo(Process process) {
+        recordExecution(new ProcessExecution(process, currentSliceStartTime, cpuTimeUsed, "IO_REQUEST", coreId));
+        scheduler.blockProcess(process, timeSliceCounter);
+        trace(TraceBuffer.EventType.BLOCK, process, 0);
+        if (ioListener != null) {
+            ioListener.accept(process);
+        } else {
+            process.completeIo();
+            scheduler.wakeProcess(process);
+        }
+    }
+
+    // A process whose threads are still running waits for them; the last thread to finish ends it
+    private void finish(Process process) {
+        if (process.waitForThreads()) {
+            trace(TraceBuffer.EventType.BLOCK, process, 0);
+            recordExecution(new ProcessExecution(process, currentSliceStartTime, cpuTimeUsed,
+                "WAITING_FOR_THREADS", coreId));
+            return;
+        }
+        terminate(process);
+        recordExecution(new ProcessExecution(process, currentSliceStartTime, cpuTimeUsed, "COMPLETED", coreId));
+        Process parent = process.finishThread();
+        if (parent != null) {
+            terminate(parent);
+        }
+    }
+
+    private void terminate(Process process) {
+        process.setState(ProcessState.TERMINATED);
+        process.setEndTime(cpuTimeUsed);
+        trace(TraceBuffer.EventType.TERMINATE, process, 0);
+        if (terminationListener != null) {
+            terminationListener.accept(process);
+        }
+    }
+
+    // keep a finished slice in memory or append it to the history file
+    private void recordExecution(ProcessExecution execution) {
+        historyCount++;
+        if (historyFile != null) {
+            historyFile.append(execution);
+        } else if (keepHistory) {
+            executionHistory.add(execution);
+            historyIndex.add(execution.process.getPID(), execution.startTime, execution.endTime);
+        }
+    }
+
     // run process for 1 unit
     public synchronized void executeTimeUnit() {
+        executeTimeUnits(1);
+    }
+
+    // run process for several units at once (event-driven mode); a pending switch is paid first
+    public synchronized void executeTimeUnits(int units) {
+        if (units <= 0) return;
+        execute(units);
+        // Keep scheduler's logical time aligned to CPU time.
+        scheduler.setCurrentTime(cpuTimeUsed);
+    }
+
+    private void execute(int units) {
         if (currentRunningProcess != null && currentRunningProcess.getState() == ProcessState.RUNNING) {
-            currentRunningProcess.reduceRemainingTime(1);
-            timeSliceCounter++;
-            cpuTimeUsed++;
-            // Keep scheduler's logical time aligned to CPU time.
-            scheduler.setCurrentTime(cpuTimeUsed);
-            
-            log("EXECUTE: " + currentRunningProcess.getProcessName() + 
-                " executing (Remaining: " + currentRunningProcess.getRemainingBurstTime() + ")");
-        } else {
-            cpuTimeUsed++;
-            scheduler.setCurrentTime(cpuTimeUsed);
+            int overhead = Math.min(units, switchOverhead);
+            switchOverhead -= overhead;
+            switchTime += overhead;
+            int work = units - overhead;
+            if (work > 0) {
+                currentRunningProcess.reduceRemainingTime(work);
+                timeSliceCounter += work;
+                busyTime += work;
+                trace(TraceBuffer.EventType.EXECUTE, currentRunningProcess, work);
+            }
         }
+        cpuTimeUsed += units;
+    }
+
+    /**
+     * Time until the running process completes or its quantum expires, -1 if CPU is idle
+     */
+    public synchronized int getTimeToNextEvent() {
+        if (currentRunningProcess == null) return -1;
+        int untilExpiry = scheduler.getTimeQuantum(currentRunningProcess) - timeSliceCounter;
+        return switchOverhead + Math.max(1, Math.min(currentRunningProcess.getBurstRemainingTime(), untilExpiry));
     }
 
     // dispatch + execute
@@ -117,6 +284,48 @@ public class Dispatcher {
         executeTimeUnit();
     }
 
+    /**
+     * Run 'cycles' dispatch + execute cycles in one critical section; same result and trace
+     * as that many runCycle calls. Returns the cycles run.
+     */
+    public synchronized int runCycles(int cycles) {
+        return advance(cycles, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Run cycles until CPU time reaches 'time'; returns the cycles run
+     */
+    public synchronized int runUntil(int time) {
+        return advance(Integer.MAX_VALUE, time, false);
+    }
+
+    /**
+     * Run cycles until nothing is running or ready; returns the cycles run
+     */
+    public synchronized int runUntilIdle() {
+        return advance(Integer.MAX_VALUE, Integer.MAX_VALUE, true);
+    }
+
+    // Until the running process completes, blocks or expires, dispatch() would change nothing,
+    // so those ticks run back to back without asking the scheduler; idle ticks still poll it
+    private int advance(int maxCycles, int untilTime, boolean untilIdle) {
+        int cycles = 0;
+        while (cycles < maxCycles && cpuTimeUsed < untilTime) {
+            dispatch();
+            if (untilIdle && currentRunningProcess == null) break;
+            int ticks = 1;
+            if (currentRunningProcess != null) {
+                ticks = Math.max(1, Math.min(getTimeToNextEvent(), Math.min(maxCycles - cycles, untilTime - cpuTimeUsed)));
+            }
+            for (int i = 0; i < ticks; i++) {
+                execute(1);
+            }
+            scheduler.setCurrentTime(cpuTimeUsed);
+            cycles += ticks;
+        }
+        return cycles;
+    }
+
     /**
      * Get current running process
      */
@@ -124,6 +333,13 @@ public class Dispatcher {
         return currentRunningProcess;
     }
 
+    /**
+     * Get time the current slice started, -1 if CPU is idle
+     */
+    public synchronized int getCurrentSliceStartTime() {
+        return currentSliceStartTime;
+    }
+
     /**
      * Check if CPU is idle
      */
@@ -139,33 +355,337 @@ public class Dispatcher {
     }
 
     /**
-     * Get execution history
+     * Get the time spent executing processes (CPU time minus idle time)
+     */
+    public synchronized int getBusyTime() {
+        return busyTime;
+    }
+
+    /**
+     * Get CPU utilization as a fraction of elapsed time
+     */
+    public synchronized double getUtilization() {
+        return cpuTimeUsed == 0 ? 0.0 : (double) busyTime / cpuTimeUsed;
+    }
+
+    /**
+     * Units lost switching to another process / to another thread of the same process.
+     * Both are 0 by default; thread switches are expected to be the cheaper of the two.
+     */
+    public synchronized void setContextSwitchCosts(int processSwitchCost, int threadSwitchCost) {
+        this.processSwitchCost = Math.max(0, processSwitchCost);
+        this.threadSwitchCost = Math.max(0, threadSwitchCost);
+    }
+
+    /**
+     * Get the time lost to context switches
+     */
+    public synchronized int getSwitchTime() {
+        return switchTime;
+    }
+
+    public synchronized int getProcessSwitches() {
+        return processSwitches;
+    }
+
+    public synchronized int getThreadSwitches() {
+        return threadSwitches;
+    }
+
+    /**
+     * Count a process migrated onto this core
+     */
+    public synchronized void recordMigration() {
+        migrations++;
+    }
+
+    public synchronized int getMigrations() {
+        return migrations;
+    }
+
+    public int getCoreId() {
+        return coreId;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Get execution history (read back from disk when a history file is set)
      */
     public synchronized List<ProcessExecution> getExecutionHistory() {
-        return new ArrayList<>(executionHistory);
+        if (historyFile == null) {
+            return new ArrayList<>(executionHistory);
+        }
+        return fromFile(reader -> {
+            List<ExecutionHistoryReader.Slice> slices = new ArrayList<>();
+            for (long i = 0; i < reader.size(); i++) {
+                slices.add(reader.get(i));
+            }
+            return slices;
+        });
+    }
+
+    /**
+     * Slice that was running at 'time' (it started at or before and ended after), null if the
+     * core was idle or switching. O(log n) over the in-memory history or the history file.
+     */
+    public synchronized ProcessExecution getExecutionAt(int time) {
+        if (historyFile != null) {
+            List<ProcessExecution> slices = fromFile(reader -> reader.slicesBetween(time, time + 1));
+            return slices.isEmpty() ? null : slices.get(0);
+        }
+        int index = historyIndex.sliceAt(time);
+        return index >= 0 ? executionHistory.get(index) : null;
+    }
+
+    /**
+     * Slices that overlap [fromTime, toTime), in time order (a Gantt window); O(log n + matches)
+     */
+    public synchronized List<ProcessExecution> getExecutionsBetween(int fromTime, int toTime) {
+        if (historyFile != null) {
+            return fromFile(reader -> reader.slicesBetween(fromTime, toTime));
+        }
+        List<ProcessExecution> slices = new ArrayList<>();
+        for (int i = historyIndex.firstEndingAfter(fromTime); i < historyIndex.size() && historyIndex.startOf(i) < toTime; i++) {
+            slices.add(executionHistory.get(i));
+        }
+        return slices;
+    }
+
+    /**
+     * Slices of one PID on this core, in time order; O(slices of that PID)
+     */
+    public synchronized List<ProcessExecution> getExecutionsOf(int pid) {
+        if (historyFile != null) {
+            return fromFile(reader -> reader.slicesForPid(pid));
+        }
+        List<ProcessExecution> slices = new ArrayList<>();
+        for (int i = historyIndex.lastOf(pid); i >= 0; i = historyIndex.previousOf(i)) {
+            slices.add(executionHistory.get(i));
+        }
+        Collections.reverse(slices);
+        return slices;
+    }
+
+    // run a query on the live history file (no flush, see ExecutionHistoryFile.query) and turn
+    // the slices back into executions
+    private List<ProcessExecution> fromFile(Function<ExecutionHistoryReader, List<ExecutionHistoryReader.Slice>> query) {
+        List<ProcessExecution> slices = new ArrayList<>();
+        for (ExecutionHistoryReader.Slice slice : historyFile.query(query)) {
+            slices.add(new ProcessExecution(processResolver.apply(slice.pid),
+                slice.startTime, slice.endTime, slice.reason, slice.coreId));
+        }
+        return slices;
     }
 
     /**
-     * Log dispatcher activities
+     * Number of slices recorded so far
      */
-    private void log(String message) {
-        String logEntry = "[T=" + cpuTimeUsed + "] " + message;
-        dispatchLog.add(logEntry);
-        System.out.println(logEntry);
+    public synchronized int getExecutionHistoryCount() {
+        return historyCount;
     }
 
     /**
-     * Get dispatch log
+     * Write finished slices to a memory-mapped file instead of keeping them on the heap
+     */
+    public synchronized void setHistoryFile(ExecutionHistoryFile historyFile) {
+        this.historyFile = historyFile;
+    }
+
+    /**
+     * Keep slices in memory when no history file is set (on by default); off for long runs
+     */
+    public synchronized void setKeepHistory(boolean keepHistory) {
+        this.keepHistory = keepHistory;
+    }
+
+    public synchronized ExecutionHistoryFile getHistoryFile() {
+        return historyFile;
+    }
+
+    /**
+     * Flush the history file and open it as a standalone reader (null when history is in
+     * memory); the slice queries above read the live file without flushing
+     */
+    public synchronized ExecutionHistoryReader openHistoryReader() throws IOException {
+        if (historyFile == null) return null;
+        historyFile.flush();
+        return ExecutionHistoryReader.open(historyFile.getPath());
+    }
+
+    // Record a dispatcher event: fixed-width ints into the ring buffer, no strings, no I/O
+    private void trace(TraceBuffer.EventType type, Process process, int units) {
+        if (TraceBuffer.ENABLED && tracing) {
+            trace.record(type, cpuTimeUsed, process.getPID(), process.getRemainingBurstTime(), units);
+        }
+    }
+
+    // Turn one binary record back into the classic log line
+    private String render(TraceBuffer.EventType type, int time, int pid, int remaining, int units) {
+        Process process = processResolver.apply(pid);
+        String name = process != null ? process.getProcessName() : "PID-" + pid;
+        String message;
+        switch (type) {
+            case DISPATCH:
+                message = "DISPATCH: Process " + name + " (PID: " + pid + ") assigned to CPU at time " + time;
+                break;
+            case EXECUTE:
+                message = units == 1
+                    ? "EXECUTE: " + name + " executing (Remaining: " + remaining + ")"
+                    : "EXECUTE: " + name + " executed " + units + " units (Remaining: " + remaining + ")";
+                break;
+            case CONTEXT_SWITCH:
+                message = "CONTEXT SWITCH: Suspending " + name + " (Time quantum expired)";
+                break;
+            case PREEMPT:
+                message = "CONTEXT SWITCH: Suspending " + name + " (Preempted)";
+                break;
+            case BLOCK:
+                message = "PROCESS BLOCKED: " + name + " waiting at time " + time;
+                break;
+            default:
+                message = "PROCESS TERMINATED: " + name + " completed execution at time " + time;
+                break;
+        }
+        return "[T=" + time + "] " + (tagLogWithCore ? "[CPU " + coreId + "] " : "") + message;
+    }
+
+    /**
+     * Render trace records from sequence 'from' onwards; returns the sequence to continue from
+     */
+    public long drainTrace(long from, Consumer<String> sink) {
+        return trace.drain(from, (type, time, pid, remaining, units) ->
+            sink.accept(render(type, time, pid, remaining, units)));
+    }
+
+    /**
+     * Get dispatch log (rendered from the records still in the trace buffer)
      */
     public synchronized List<String> getDispatchLog() {
-        return new ArrayList<>(dispatchLog);
+        List<String> lines = new ArrayList<>();
+        drainTrace(0, lines::add);
+        return lines;
     }
 
     /**
      * Clear logs
      */
     public synchronized void clearLogs() {
-        dispatchLog.clear();
+        trace.clear();
+    }
+
+    /**
+     * Turn event tracing on or off at runtime (-Dos.trace=none removes it entirely)
+     */
+    public synchronized void setTracing(boolean tracing) {
+        this.tracing = tracing;
+    }
+
+    public TraceBuffer getTraceBuffer() {
+        return trace;
+    }
+
+    /**
+     * Called with every process this dispatcher terminates (e.g. to collect latency metrics)
+     */
+    public synchronized void setTerminationListener(Consumer<Process> terminationListener) {
+        this.terminationListener = terminationListener;
+    }
+
+    /**
+     * Called with every process that blocks for an I/O burst; the listener must wake it
+     * (Scheduler.wakeProcess) after Process.completeIo once the device is done
+     */
+    public synchronized void setIoListener(Consumer<Process> ioListener) {
+        this.ioListener = ioListener;
+    }
+
+    /**
+     * Set how PIDs are turned back into processes when the trace or history file is read
+     */
+    public void setProcessResolver(IntFunction<Process> processResolver) {
+        this.processResolver = processResolver;
+    }
+
+    /**
+     * Checkpoint: the running process, slice and switch counters, CPU time, and the slices
+     * kept in memory. The trace buffer and the history file are not part of it.
+     */
+    public synchronized void writeState(DataOutput out) throws IOException {
+        out.writeInt(currentRunningProcess != null ? currentRunningProcess.getPID() : -1);
+        out.writeInt(timeSliceCounter);
+        out.writeInt(currentSliceStartTime);
+        out.writeInt(cpuTimeUsed);
+        out.writeInt(busyTime);
+        out.writeInt(migrations);
+        out.writeInt(processSwitchCost);
+        out.writeInt(threadSwitchCost);
+        out.writeInt(switchOverhead);
+        out.writeInt(switchTime);
+        out.writeInt(processSwitches);
+        out.writeInt(threadSwitches);
+        out.writeInt(lastPid);
+        out.writeInt(lastOwnerPid);
+        out.writeBoolean(tracing);
+        out.writeBoolean(keepHistory);
+        out.writeInt(historyCount);
+        // slices: reasons once in a dictionary, then one code per slice
+        List<String> reasons = new ArrayList<>();
+        Map<String, Integer> reasonCodes = new HashMap<>();
+        for (ProcessExecution execution : executionHistory) {
+            if (reasonCodes.putIfAbsent(execution.reason, reasons.size()) == null) {
+                reasons.add(execution.reason);
+            }
+        }
+        out.writeInt(reasons.size());
+        for (String reason : reasons) {
+            out.writeUTF(reason);
+        }
+        out.writeInt(executionHistory.size());
+        for (ProcessExecution execution : executionHistory) {
+            out.writeInt(execution.process.getPID());
+            out.writeInt(execution.startTime);
+            out.writeInt(execution.endTime);
+            out.writeByte(reasonCodes.get(execution.reason));
+        }
+    }
+
+    // restore into a new dispatcher; PIDs are turned back into processes by 'processes'
+    public synchronized void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        int runningPid = in.readInt();
+        currentRunningProcess = runningPid >= 0 ? processes.apply(runningPid) : null;
+        timeSliceCounter = in.readInt();
+        currentSliceStartTime = in.readInt();
+        cpuTimeUsed = in.readInt();
+        busyTime = in.readInt();
+        migrations = in.readInt();
+        processSwitchCost = in.readInt();
+        threadSwitchCost = in.readInt();
+        switchOverhead = in.readInt();
+        switchTime = in.readInt();
+        processSwitches = in.readInt();
+        threadSwitches = in.readInt();
+        lastPid = in.readInt();
+        lastOwnerPid = in.readInt();
+        tracing = in.readBoolean();
+        keepHistory = in.readBoolean();
+        historyCount = in.readInt();
+        String[] reasons = new String[in.readInt()];
+        for (int i = 0; i < reasons.length; i++) {
+            reasons[i] = in.readUTF();
+        }
+        int count = in.readInt();
+        executionHistory = new ArrayList<>(count);
+        historyIndex.clear();
+        for (int i = 0; i < count; i++) {
+            int pid = in.readInt();
+            int startTime = in.readInt();
+            int endTime = in.readInt();
+            executionHistory.add(new ProcessExecution(processes.apply(pid), startTime, endTime, reasons[in.readByte()], coreId));
+            historyIndex.add(pid, startTime, endTime);
+        }
     }
 
     /**
@@ -174,7 +694,9 @@ public class Dispatcher {
     public synchronized void printStatistics() {
         System.out.println("\n========== DISPATCHER STATISTICS ==========");
         System.out.println("Total CPU Time Used: " + cpuTimeUsed);
-        System.out.println("Total Processes Executed: " + executionHistory.size());
+        System.out.println("Total Processes Executed: " + historyCount);
+        System.out.println("Context Switches: " + processSwitches + " process, " + threadSwitches
+            + " thread (" + switchTime + " units lost)");
         System.out.println("Current Running Process: " + 
             (currentRunningProcess != null ? currentRunningProcess.getProcessName() : "None"));
         System.out.println("=========================================\n");
@@ -0,0 +1,276 @@
+package dispatcher;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Append-only execution history on disk, written through memory-mapped chunks.
+ *
+ * File layout:
+ *   header  (64 bytes)  magic, version, record count, footer position/size
+ *   records (24 bytes each, in the order slices end)
+ *       start int | end int | pid int | core short | reason byte | pad | previous slice of same PID long
+ *   footer  (written on flush/close) PID index sorted by PID: pid int, last record long;
+ *           then the reason dictionary
+ * Records are written through a mapping that starts small and doubles with the file (up to
+ * RECORDS_PER_CHUNK records); a flush cuts the file back to the end of the footer.
+ *
+ * Slices of one dispatcher never overlap, so records are ordered by both start and end
+ * time; ExecutionHistoryReader relies on that for binary-searched time range queries,
+ * and on the per-PID back links for PID queries.
+ */
+public class ExecutionHistoryFile implements Closeable {
+    static final long MAGIC = 0x4F53484953543031L; // "OSHIST01"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 24;
+    static final int RECORDS_PER_CHUNK = 1 << 22; // ~96 MB mapped at a time
+    static final long CHUNK_BYTES = (long) RECORDS_PER_CHUNK * RECORD_BYTES;
+    private static final int FIRST_CHUNK_RECORDS = 1 << 12; // ~96 KB
+
+    // header offsets
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 8;
+    static final int H_COUNT = 16;
+    static final int H_FOOTER_POSITION = 24; // -1 while the footer is stale
+    static final int H_PID_ENTRIES = 32;
+    static final int H_REASON_ENTRIES = 36;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer chunk;
+    private long chunkStart;    // records [chunkStart, chunkEnd) are mapped by chunk
+    private long chunkEnd;
+    private long count;
+    private boolean footerValid;
+    private ExecutionHistoryReader liveView;   // created by the first query
+
+    // PID -> index of its latest record, open addressing (no boxing per slice)
+    private int[] pidKeys;
+    private long[] pidLast;
+    private int pidCount;
+
+    private final Map<String, Integer> reasonCodes;
+    private final List<String> reasons;
+
+    private ExecutionHistoryFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        this.chunk = null;
+        this.chunkStart = 0;
+        this.chunkEnd = 0;
+        this.count = 0;
+        this.footerValid = false;
+        this.liveView = null;
+        this.pidKeys = new int[1024];
+        Arrays.fill(pidKeys, Integer.MIN_VALUE);
+        this.pidLast = new long[1024];
+        this.pidCount = 0;
+        this.reasonCodes = new HashMap<>();
+        this.reasons = new ArrayList<>();
+
+        header.putLong(H_MAGIC, MAGIC);
+        header.putInt(H_VERSION, VERSION);
+        header.putLong(H_COUNT, 0);
+        header.putLong(H_FOOTER_POSITION, -1);
+    }
+
+    /**
+     * Create (or overwrite) a history file
+     */
+    public static ExecutionHistoryFile create(Path path) throws IOException {
+        return new ExecutionHistoryFile(path);
+    }
+
+    // append one slice
+    public synchronized void append(int pid, int startTime, int endTime, String reason, int coreId) {
+        long index = count;
+        if (index >= chunkEnd) {
+            mapChunk(index);
+        }
+        int offset = (int) (index - chunkStart) * RECORD_BYTES;
+        chunk.putInt(offset, startTime);
+        chunk.putInt(offset + 4, endTime);
+        chunk.putInt(offset + 8, pid);
+        chunk.putShort(offset + 12, (short) coreId);
+        chunk.put(offset + 14, reasonCode(reason));
+        chunk.put(offset + 15, (byte) 0);
+        chunk.putLong(offset + 16, swapLast(pid, index));
+
+        count = index + 1;
+        header.putLong(H_COUNT, count);
+        if (footerValid) {
+            // the next records overwrite the footer
+            header.putLong(H_FOOTER_POSITION, -1);
+            footerValid = false;
+        }
+    }
+
+    public void append(Dispatcher.ProcessExecution execution) {
+        append(execution.process.getPID(), execution.startTime, execution.endTime, execution.reason, execution.coreId);
+    }
+
+    // map records from 'first' on; the new chunk is as long as the file so far, so the file
+    // at most doubles, and a short run never grows it by a full RECORDS_PER_CHUNK
+    private void mapChunk(long first) {
+        long records = Math.max(FIRST_CHUNK_RECORDS, Math.min(first, RECORDS_PER_CHUNK));
+        try {
+            if (chunk != null) {
+                chunk.force();
+            }
+            chunk = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + first * RECORD_BYTES, records * RECORD_BYTES);
+            chunkStart = first;
+            chunkEnd = first + records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map history records from " + first + " of " + path, e);
+        }
+    }
+
+    private byte reasonCode(String reason) {
+        Integer code = reasonCodes.get(reason);
+        if (code == null) {
+            if (reasons.size() == 255) {
+                throw new IllegalStateException("Too many distinct slice reasons in " + path);
+            }
+            code = reasons.size();
+            reasons.add(reason);
+            reasonCodes.put(reason, code);
+        }
+        return (byte) (int) code;
+    }
+
+    // store index as the PID's latest record, return the previous one (-1 if none)
+    private long swapLast(int pid, long index) {
+        int slot = findSlot(pid);
+        if (pidKeys[slot] == pid) {
+            long previous = pidLast[slot];
+            pidLast[slot] = index;
+            return previous;
+        }
+        pidKeys[slot] = pid;
+        pidLast[slot] = index;
+        if (++pidCount * 2 > pidKeys.length) {
+            growPidIndex();
+        }
+        return -1;
+    }
+
+    // latest record of a PID, -1 if it has none
+    synchronized long lastRecordOf(int pid) {
+        int slot = findSlot(pid);
+        return pidKeys[slot] == pid ? pidLast[slot] : -1;
+    }
+
+    private int findSlot(int pid) {
+        int mask = pidKeys.length - 1;
+        int slot = (pid * 0x9E3779B9) >>> 1 & mask;
+        while (pidKeys[slot] != Integer.MIN_VALUE && pidKeys[slot] != pid) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growPidIndex() {
+        int[] oldKeys = pidKeys;
+        long[] oldLast = pidLast;
+        pidKeys = new int[oldKeys.length * 2];
+        Arrays.fill(pidKeys, Integer.MIN_VALUE);
+        pidLast = new long[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != Integer.MIN_VALUE) {
+                int slot = findSlot(oldKeys[i]);
+                pidKeys[slot] = oldKeys[i];
+                pidLast[slot] = oldLast[i];
+            }
+        }
+    }
+
+    /**
+     * Write the PID index and reason dictionary after the records, drop the mapped space
+     * past them and sync to disk. Readers opened after a flush answer PID queries without
+     * scanning. Does nothing when no slice was appended since the last flush.
+     */
+    public synchronized void flush() throws IOException {
+        if (footerValid) return;
+        long footerPosition = HEADER_BYTES + count * RECORD_BYTES;
+
+        long[] entries = new long[pidCount]; // pid in the high half, slot in the low half, sorted by pid
+        int n = 0;
+        for (int i = 0; i < pidKeys.length; i++) {
+            if (pidKeys[i] != Integer.MIN_VALUE) {
+                entries[n++] = ((long) pidKeys[i] << 32) | i;
+            }
+        }
+        Arrays.sort(entries);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(pidCount * 12 + 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (long entry : entries) {
+            int slot = (int) entry;
+            out.writeInt(pidKeys[slot]);
+            out.writeLong(pidLast[slot]);
+        }
+        for (String reason : reasons) {
+            out.writeUTF(reason);
+        }
+        out.flush();
+
+        byte[] footer = bytes.toByteArray();
+        channel.write(ByteBuffer.wrap(footer), footerPosition);
+        if (chunk != null) {
+            chunk.force();
+            // the next append maps the records again, from the footer on
+            chunk = null;
+            chunkEnd = 0;
+        }
+        long footerEnd = footerPosition + footer.length;
+        if (channel.size() > footerEnd) {
+            channel.truncate(footerEnd);
+        }
+        header.putInt(H_PID_ENTRIES, pidCount);
+        header.putInt(H_REASON_ENTRIES, reasons.size());
+        header.putLong(H_FOOTER_POSITION, footerPosition);
+        header.force();
+        footerValid = true;
+    }
+
+    /**
+     * Run a query on the slices appended so far, while the file is still being written. The
+     * reader maps the records directly and takes the PID index and reasons from this writer,
+     * so nothing is flushed or synced: a range query stays O(log n + matches) and a PID
+     * query O(slices of that PID). The reader is only valid during the call.
+     */
+    public synchronized <T> T query(Function<ExecutionHistoryReader, T> query) {
+        if (liveView == null) {
+            liveView = ExecutionHistoryReader.live(this, channel, reasons);
+        }
+        liveView.refresh(count);
+        return query.apply(liveView);
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Flush and close the file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+}
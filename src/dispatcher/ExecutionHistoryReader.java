@@ -0,0 +1,257 @@
+package dispatcher;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+import static dispatcher.ExecutionHistoryFile.*;
+
+/**
+ * Read-only view of an ExecutionHistoryFile. Records are memory-mapped chunk by chunk
+ * as queries touch them, so nothing is loaded up front:
+ *   - slicesForPid follows the per-PID back links, O(slices of that PID)
+ *   - slicesBetween binary-searches the time-ordered records, O(log n + matches)
+ * ExecutionHistoryFile.query gives a live view of a file still being written: it reads the
+ * records appended so far and takes the PID index and reasons from the writer, so it needs
+ * no flush.
+ */
+public class ExecutionHistoryReader implements Closeable {
+
+    // One slice read back from disk
+    public static class Slice {
+        public final int pid;
+        public final int startTime;
+        public final int endTime;
+        public final String reason;
+        public final int coreId;
+
+        Slice(int pid, int startTime, int endTime, String reason, int coreId) {
+            this.pid = pid;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.reason = reason;
+            this.coreId = coreId;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[PID: %d, Core: %d, %d-%d, %s]", pid, coreId, startTime, endTime, reason);
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ExecutionHistoryFile writer; // live view: PID index and reasons come from here
+    private long count;
+    private MappedByteBuffer[] chunks;
+    private final ByteBuffer pidIndex;     // null when the writer never flushed its footer
+    private final int pidEntries;
+    private final List<String> reasons;
+
+    private ExecutionHistoryReader(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.writer = null;
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getLong(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION) {
+            channel.close();
+            throw new IOException("Not an execution history file: " + path);
+        }
+        this.count = header.getLong(H_COUNT);
+        this.chunks = new MappedByteBuffer[(int) ((count + RECORDS_PER_CHUNK - 1) / RECORDS_PER_CHUNK)];
+
+        long footerPosition = header.getLong(H_FOOTER_POSITION);
+        this.reasons = new ArrayList<>();
+        if (footerPosition >= 0) {
+            this.pidEntries = header.getInt(H_PID_ENTRIES);
+            int reasonEntries = header.getInt(H_REASON_ENTRIES);
+            long footerSize = channel.size() - footerPosition;
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerPosition, footerSize);
+            this.pidIndex = footer.slice(0, pidEntries * 12);
+            // read the reasons straight from the mapping, without copying the footer
+            DataInputStream in = new DataInputStream(streamOf(footer.slice(pidEntries * 12, (int) footerSize - pidEntries * 12)));
+            for (int i = 0; i < reasonEntries; i++) {
+                reasons.add(in.readUTF());
+            }
+        } else {
+            this.pidIndex = null;
+            this.pidEntries = 0;
+        }
+    }
+
+    // live view over the writer's own channel; refresh() before each query
+    private ExecutionHistoryReader(ExecutionHistoryFile writer, FileChannel channel, List<String> reasons) {
+        this.path = writer.getPath();
+        this.channel = channel;
+        this.writer = writer;
+        this.count = 0;
+        this.chunks = new MappedByteBuffer[0];
+        this.pidIndex = null;
+        this.pidEntries = 0;
+        this.reasons = reasons;
+    }
+
+    /**
+     * Open a history file for queries
+     */
+    public static ExecutionHistoryReader open(Path path) throws IOException {
+        return new ExecutionHistoryReader(path);
+    }
+
+    static ExecutionHistoryReader live(ExecutionHistoryFile writer, FileChannel channel, List<String> reasons) {
+        return new ExecutionHistoryReader(writer, channel, reasons);
+    }
+
+    // live view: records [0, count) have been appended
+    void refresh(long count) {
+        this.count = count;
+        int needed = (int) ((count + RECORDS_PER_CHUNK - 1) / RECORDS_PER_CHUNK);
+        if (needed > chunks.length) {
+            chunks = Arrays.copyOf(chunks, needed);
+        }
+    }
+
+    private static InputStream streamOf(ByteBuffer buffer) {
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                if (!buffer.hasRemaining()) return -1;
+                length = Math.min(length, buffer.remaining());
+                buffer.get(bytes, offset, length);
+                return length;
+            }
+        };
+    }
+
+    public long size() {
+        return count;
+    }
+
+    // map the chunk holding a record on first use (again if a live view's last chunk grew past it)
+    private ByteBuffer chunkOf(long index) {
+        int chunk = (int) (index / RECORDS_PER_CHUNK);
+        if (chunks[chunk] == null || offsetOf(index) + RECORD_BYTES > chunks[chunk].capacity()) {
+            long start = HEADER_BYTES + chunk * CHUNK_BYTES;
+            long length = Math.min(CHUNK_BYTES, (count - (long) chunk * RECORDS_PER_CHUNK) * RECORD_BYTES);
+            try {
+                chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map history chunk " + chunk + " of " + path, e);
+            }
+        }
+        return chunks[chunk];
+    }
+
+    private static int offsetOf(long index) {
+        return (int) (index % RECORDS_PER_CHUNK) * RECORD_BYTES;
+    }
+
+    private int startTimeOf(long index) {
+        return chunkOf(index).getInt(offsetOf(index));
+    }
+
+    private int endTimeOf(long index) {
+        return chunkOf(index).getInt(offsetOf(index) + 4);
+    }
+
+    private int pidOf(long index) {
+        return chunkOf(index).getInt(offsetOf(index) + 8);
+    }
+
+    private long previousOf(long index) {
+        return chunkOf(index).getLong(offsetOf(index) + 16);
+    }
+
+    /**
+     * Read one record
+     */
+    public Slice get(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("No slice " + index + " in " + path);
+        }
+        ByteBuffer chunk = chunkOf(index);
+        int offset = offsetOf(index);
+        int code = chunk.get(offset + 14) & 0xFF;
+        String reason = code < reasons.size() ? reasons.get(code) : "REASON-" + code;
+        return new Slice(chunk.getInt(offset + 8), chunk.getInt(offset), chunk.getInt(offset + 4),
+            reason, chunk.getShort(offset + 12));
+    }
+
+    /**
+     * All slices of one PID, in time order
+     */
+    public List<Slice> slicesForPid(int pid) {
+        List<Slice> result = new ArrayList<>();
+        for (long index = lastRecordOf(pid); index >= 0; index = previousOf(index)) {
+            result.add(get(index));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // latest record of a PID: the writer's index for a live view, the footer index if present,
+    // otherwise scan back from the end
+    private long lastRecordOf(int pid) {
+        if (writer != null) {
+            return writer.lastRecordOf(pid);
+        }
+        if (pidIndex != null) {
+            int lo = 0;
+            int hi = pidEntries - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int midPid = pidIndex.getInt(mid * 12);
+                if (midPid < pid) {
+                    lo = mid + 1;
+                } else if (midPid > pid) {
+                    hi = mid - 1;
+                } else {
+                    return pidIndex.getLong(mid * 12 + 4);
+                }
+            }
+            return -1;
+        }
+        for (long index = count - 1; index >= 0; index--) {
+            if (pidOf(index) == pid) return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Slices that overlap [fromTime, toTime), in time order
+     */
+    public List<Slice> slicesBetween(int fromTime, int toTime) {
+        List<Slice> result = new ArrayList<>();
+        // first record that ends after fromTime
+        long lo = 0;
+        long hi = count;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (endTimeOf(mid) <= fromTime) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (long index = lo; index < count && startTimeOf(index) < toTime; index++) {
+            result.add(get(index));
+        }
+        return result;
+    }
+
+    // a live view shares the writer's channel, which stays open
+    @Override
+    public void close() throws IOException {
+        if (writer == null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package dispatcher;
+
+import process.Process;
+import process.ProcessTable;
+import scheduling.Scheduler;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+// N-core CPU: one Dispatcher per core, each with a local run queue, idle cores steal work
+public class MultiCoreDispatcher {
+    private static final Comparator<Dispatcher.ProcessExecution> BY_START = Comparator
+        .comparingInt((Dispatcher.ProcessExecution e) -> e.startTime)
+        .thenComparingInt(e -> e.coreId);
+
+    private Scheduler scheduler;            // global queue that new processes are admitted to
+    private List<Scheduler> runQueues;      // per-core local queues
+    private List<Dispatcher> cores;
+    private int cpuTimeUsed;
+
+    // init one dispatcher + local queue per core
+    public MultiCoreDispatcher(Scheduler scheduler, int coreCount) {
+        if (coreCount < 1) {
+            throw new IllegalArgumentException("Core count must be at least 1: " + coreCount);
+        }
+        this.scheduler = scheduler;
+        this.runQueues = new ArrayList<>();
+        this.cores = new ArrayList<>();
+        for (int i = 0; i < coreCount; i++) {
+            Scheduler local = new Scheduler(scheduler.getAlgorithm(), scheduler.getTimeQuantum(), scheduler.isConcurrent());
+            runQueues.add(local);
+            Dispatcher core = new Dispatcher(local, i);
+            // Local queues never admit processes, so PIDs are resolved by the global scheduler
+            core.setProcessResolver(scheduler::findProcess);
+            cores.add(core);
+        }
+        this.cpuTimeUsed = 0;
+    }
+
+    /**
+     * MLFQ boost interval and aging threshold for the global and every local queue
+     */
+    public void setFeedbackTuning(int boostInterval, int agingThreshold) {
+        scheduler.setFeedbackTuning(boostInterval, agingThreshold);
+        for (Scheduler local : runQueues) {
+            local.setFeedbackTuning(boostInterval, agingThreshold);
+        }
+    }
+
+    /**
+     * CFS target latency and minimum granularity for the global and every local queue
+     */
+    public void setFairTuning(int targetLatency, int minGranularity) {
+        scheduler.setFairTuning(targetLatency, minGranularity);
+        for (Scheduler local : runQueues) {
+            local.setFairTuning(targetLatency, minGranularity);
+        }
+    }
+
+    /**
+     * SRTF burst prediction for the global and every local queue
+     */
+    public void setBurstPrediction(double alpha, int initialPrediction) {
+        scheduler.setBurstPrediction(alpha, initialPrediction);
+        for (Scheduler local : runQueues) {
+            local.setBurstPrediction(alpha, initialPrediction);
+        }
+    }
+
+    /**
+     * LOTTERY seed: the global queue draws with 'seed', core i with seed + i + 1
+     */
+    public void setLotterySeed(long seed) {
+        scheduler.setLotterySeed(seed);
+        for (int i = 0; i < runQueues.size(); i++) {
+            runQueues.get(i).setLotterySeed(seed + i + 1);
+        }
+    }
+
+    /**
+     * New time quantum for the global and every local queue
+     */
+    public void setTimeQuantum(int timeQuantum) {
+        scheduler.setTimeQuantum(timeQuantum);
+        for (Scheduler local : runQueues) {
+            local.setTimeQuantum(timeQuantum);
+        }
+    }
+
+    /**
+     * Renice a process in the queue holding it. The priority is set exactly once, by that
+     * queue: a queue that finds it already changed would not move the process.
+     */
+    public synchronized void changePriority(Process process, int priority) {
+        queueOf(process).changePriority(process, priority);
+    }
+
+    // the local queue a process waits in; the global queue when it waits there or is not queued
+    private Scheduler queueOf(Process process) {
+        for (Scheduler local : runQueues) {
+            if (local.isQueued(process)) return local;
+        }
+        return scheduler;
+    }
+
+    /**
+     * New ticket count in the queue holding the process, which updates its share (stride
+     * rescales the pass it still has to go from the old stride, so the count is set only there)
+     */
+    public synchronized void changeTickets(Process process, int tickets) {
+        queueOf(process).changeTickets(process, tickets);
+    }
+
+    /**
+     * Take a waiting process out of whichever queue holds it; false if it is not queued
+     */
+    public synchronized boolean removeProcess(Process process) {
+        if (scheduler.removeProcess(process)) return true;
+        for (Scheduler local : runQueues) {
+            if (local.removeProcess(process)) return true;
+        }
+        return false;
+    }
+
+    // every core handles its switch, then queues are balanced and cores left idle pick up work
+    // (or, under EDF, cores whose job was just beaten by an earlier deadline)
+    public synchronized void dispatch() {
+        for (Dispatcher core : cores) {
+            core.dispatch();
+        }
+        balance();
+        for (Dispatcher core : cores) {
+            if (core.isCPUIdle() || core.shouldPreempt()) {
+                core.dispatch();
+            }
+        }
+    }
+
+    // Move newly admitted processes to the least loaded core, then let idle cores steal
+    private void balance() {
+        while (scheduler.hasReadyProcesses()) {
+            Process p = scheduler.getNextProcess();
+            if (p == null) break;
+            runQueues.get(leastLoadedCore()).migrateProcess(p);
+        }
+
+        for (int i = 0; i < cores.size(); i++) {
+            if (!cores.get(i).isCPUIdle() || runQueues.get(i).hasReadyProcesses()) continue;
+
+            int victim = busiestQueue(i);
+            if (victim < 0) break; // nothing left to steal anywhere
+            Process stolen = runQueues.get(victim).getNextProcess();
+            if (stolen != null) {
+                runQueues.get(i).migrateProcess(stolen);
+                cores.get(i).recordMigration();
+            }
+        }
+    }
+
+    private int load(int core) {
+        return runQueues.get(core).getReadyQueueSize() + (cores.get(core).isCPUIdle() ? 0 : 1);
+    }
+
+    private int leastLoadedCore() {
+        int best = 0;
+        for (int i = 1; i < cores.size(); i++) {
+            if (load(i) < load(best)) best = i;
+        }
+        return best;
+    }
+
+    // Busy core (other than thief) with the longest local queue, -1 if all are empty.
+    // Idle cores run their own queue next, so thieves never take from each other.
+    private int busiestQueue(int thief) {
+        int best = -1;
+        int bestSize = 0;
+        for (int i = 0; i < runQueues.size(); i++) {
+            if (i == thief || cores.get(i).isCPUIdle()) continue;
+            int size = runQueues.get(i).getReadyQueueSize();
+            if (size > bestSize) {
+                best = i;
+                bestSize = size;
+            }
+        }
+        return best;
+    }
+
+    // run every core for 1 unit
+    public synchronized void executeTimeUnit() {
+        executeTimeUnits(1);
+    }
+
+    // run every core for several units at once (event-driven mode)
+    public synchronized void executeTimeUnits(int units) {
+        if (units <= 0) return;
+        for (Dispatcher core : cores) {
+            core.executeTimeUnits(units);
+        }
+        cpuTimeUsed += units;
+        scheduler.setCurrentTime(cpuTimeUsed);
+    }
+
+    // dispatch + execute
+    public synchronized void runCycle() {
+        dispatch();
+        executeTimeUnit();
+    }
+
+    /**
+     * Run 'cycles' cycles on every core in one critical section; same result and trace as
+     * that many runCycle calls. Returns the cycles run.
+     */
+    public synchronized int runCycles(int cycles) {
+        return advance(cycles, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Run cycles until CPU time reaches 'time'; returns the cycles run
+     */
+    public synchronized int runUntil(int time) {
+        return advance(Integer.MAX_VALUE, time, false);
+    }
+
+    /**
+     * Run cycles until every core is idle with nothing left to run; returns the cycles run
+     */
+    public synchronized int runUntilIdle() {
+        return advance(Integer.MAX_VALUE, Integer.MAX_VALUE, true);
+    }
+
+    // Between two core events no core switches and balancing moves nothing, so busy cores run
+    // the ticks up to the next event in one go and idle cores just let the time pass
+    private int advance(int maxCycles, int untilTime, boolean untilIdle) {
+        int cycles = 0;
+        while (cycles < maxCycles && cpuTimeUsed < untilTime) {
+            dispatch();
+            Dispatcher next = getNextEventCore();
+            if (untilIdle && next == null) break;
+            int ticks = 1;
+            if (next != null) {
+                ticks = Math.max(1, Math.min(next.getTimeToNextEvent(), Math.min(maxCycles - cycles, untilTime - cpuTimeUsed)));
+            }
+            for (Dispatcher core : cores) {
+                if (core.isCPUIdle()) {
+                    core.executeTimeUnits(ticks);
+                } else {
+                    core.runCycles(ticks);
+                }
+            }
+            cpuTimeUsed += ticks;
+            scheduler.setCurrentTime(cpuTimeUsed);
+            cycles += ticks;
+        }
+        return cycles;
+    }
+
+    /**
+     * Core whose running process reaches its next completion / quantum expiry first, null if all idle
+     */
+    public synchronized Dispatcher getNextEventCore() {
+        Dispatcher next = null;
+        int nextDelta = Integer.MAX_VALUE;
+        for (Dispatcher core : cores) {
+            int delta = core.getTimeToNextEvent();
+            if (delta >= 0 && delta < nextDelta) {
+                next = core;
+                nextDelta = delta;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Check if every core is idle
+     */
+    public synchronized boolean isCPUIdle() {
+        for (Dispatcher core : cores) {
+            if (!core.isCPUIdle()) return false;
+        }
+        return true;
+    }
+
+    public synchronized int getCPUTimeUsed() {
+        return cpuTimeUsed;
+    }
+
+    public int getCoreCount() {
+        return cores.size();
+    }
+
+    public List<Dispatcher> getCores() {
+        return Collections.unmodifiableList(cores);
+    }
+
+    /**
+     * Get execution history of all cores, ordered by slice start time
+     */
+    public synchronized List<Dispatcher.ProcessExecution> getExecutionHistory() {
+        List<Dispatcher.ProcessExecution> history = new ArrayList<>();
+        for (Dispatcher core : cores) {
+            history.addAll(core.getExecutionHistory());
+        }
+        history.sort(BY_START);
+        return history;
+    }
+
+    /**
+     * Slice running on each core at 'time', in core order; idle cores are left out
+     */
+    public synchronized List<Dispatcher.ProcessExecution> getExecutionsAt(int time) {
+        List<Dispatcher.ProcessExecution> slices = new ArrayList<>();
+        for (Dispatcher core : cores) {
+            Dispatcher.ProcessExecution slice = core.getExecutionAt(time);
+            if (slice != null) slices.add(slice);
+        }
+        return slices;
+    }
+
+    /**
+     * Slices of every core that overlap [fromTime, toTime), ordered by start time then core
+     */
+    public synchronized List<Dispatcher.ProcessExecution> getExecutionsBetween(int fromTime, int toTime) {
+        List<Dispatcher.ProcessExecution> slices = new ArrayList<>();
+        for (Dispatcher core : cores) {
+            slices.addAll(core.getExecutionsBetween(fromTime, toTime));
+        }
+        slices.sort(BY_START);
+        return slices;
+    }
+
+    /**
+     * Slices of one PID on every core, ordered by start time
+     */
+    public synchronized List<Dispatcher.ProcessExecution> getExecutionsOf(int pid) {
+        List<Dispatcher.ProcessExecution> slices = new ArrayList<>();
+        for (Dispatcher core : cores) {
+            slices.addAll(core.getExecutionsOf(pid));
+        }
+        slices.sort(BY_START);
+        return slices;
+    }
+
+    /**
+     * Get dispatch log of all cores
+     */
+    public synchronized List<String> getDispatchLog() {
+        List<String> logs = new ArrayList<>();
+        for (Dispatcher core : cores) {
+            logs.addAll(core.getDispatchLog());
+        }
+        return logs;
+    }
+
+    // processes waiting in the global and all local queues
+    public int getReadyQueueSize() {
+        int total = scheduler.getReadyQueueSize();
+        for (Scheduler local : runQueues) {
+            total += local.getReadyQueueSize();
+        }
+        return total;
+    }
+
+    /**
+     * Checkpoint of every local run queue and core (the global queue is written by its owner)
+     */
+    public synchronized void writeState(DataOutput out) throws IOException {
+        out.writeInt(cpuTimeUsed);
+        for (int i = 0; i < cores.size(); i++) {
+            runQueues.get(i).writeState(out);
+            cores.get(i).writeState(out);
+        }
+    }
+
+    // restore into a new multi-core dispatcher with the same number of cores
+    public synchronized void readState(DataInput in, ProcessTable table) throws IOException {
+        cpuTimeUsed = in.readInt();
+        for (int i = 0; i < cores.size(); i++) {
+            runQueues.get(i).readState(in, table);
+            cores.get(i).readState(in, table::findByPID);
+        }
+    }
+
+    public synchronized int getTotalMigrations() {
+        int total = 0;
+        for (Dispatcher core : cores) {
+            total += core.getMigrations();
+        }
+        return total;
+    }
+}
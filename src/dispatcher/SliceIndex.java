@@ -0,0 +1,113 @@
+package dispatcher;
+
+import java.util.Arrays;
+
+/**
+ * Index over one core's finished slices, kept up to date as they are recorded.
+ * A core's slices are appended in time order and never overlap, so their start and end
+ * times are both sorted: a stabbing or range query is a binary search plus a scan of the
+ * matches, O(log n + k), with no tree to rebalance. Each slice also links back to the
+ * previous slice of its PID, so the slices of one PID are found without a scan.
+ * Entry i is the i-th slice recorded; the caller keeps the slices themselves.
+ */
+class SliceIndex {
+    private int[] starts = new int[64];     // clamped to the end for a slice cut short before its switch was paid
+    private int[] ends = new int[64];
+    private int[] previous = new int[64];   // previous slice of the same PID, -1 = first
+    private int size = 0;
+    // PID -> latest slice, open addressing with linear probing; 0 keys are free (PIDs are positive)
+    private int[] pidKeys = new int[64];
+    private int[] pidLast = new int[64];
+    private int pidCount = 0;
+
+    void add(int pid, int startTime, int endTime) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            previous = Arrays.copyOf(previous, size * 2);
+        }
+        starts[size] = Math.min(startTime, endTime);
+        ends[size] = endTime;
+        int bucket = bucketOf(pid);
+        if (pidKeys[bucket] == pid) {
+            previous[size] = pidLast[bucket];
+        } else {
+            previous[size] = -1;
+            pidKeys[bucket] = pid;
+            pidCount++;
+        }
+        pidLast[bucket] = size++;
+        if (pidCount * 2 > pidKeys.length) {
+            growPids();
+        }
+    }
+
+    void clear() {
+        size = 0;
+        Arrays.fill(pidKeys, 0);
+        pidCount = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // slice running at 'time' (start <= time < end), -1 if the core was idle or switching
+    int sliceAt(int time) {
+        int index = firstEndingAfter(time);
+        return index < size && starts[index] <= time ? index : -1;
+    }
+
+    // first slice ending after 'time'; slices from here on overlap [time, t) while they start before t
+    int firstEndingAfter(int time) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ends[mid] <= time) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    int startOf(int index) {
+        return starts[index];
+    }
+
+    // latest slice of a PID, -1 if it never ran here
+    int lastOf(int pid) {
+        int bucket = bucketOf(pid);
+        return pidKeys[bucket] == pid ? pidLast[bucket] : -1;
+    }
+
+    // previous slice of the same PID, -1 if this is its first
+    int previousOf(int index) {
+        return previous[index];
+    }
+
+    private int bucketOf(int pid) {
+        int mask = pidKeys.length - 1;
+        int bucket = pid * 0x9E3779B9 & mask;
+        while (pidKeys[bucket] != 0 && pidKeys[bucket] != pid) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+    private void growPids() {
+        int[] keys = pidKeys;
+        int[] last = pidLast;
+        pidKeys = new int[keys.length * 2];
+        pidLast = new int[keys.length * 2];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                int bucket = bucketOf(keys[i]);
+                pidKeys[bucket] = keys[i];
+                pidLast[bucket] = last[i];
+            }
+        }
+    }
+}
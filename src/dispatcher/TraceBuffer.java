@@ -0,0 +1,114 @@
+package dispatcher;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated ring buffer of fixed-width binary dispatcher events.
+ * One writer (the dispatcher) appends records without allocating; readers copy
+ * records out later and render them only when asked. When the buffer is full the
+ * oldest records are overwritten, and readers skip anything that was overwritten.
+ * The lap check works like a seqlock: publishing record n marks the slot of record
+ * n + 1 - capacity as being overwritten, so a reader that copied a record and then finds
+ * it marked drops the copy. The fences keep the copy and the check in that order.
+ */
+public class TraceBuffer {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // -Dos.trace=none turns every record() call into dead code the JIT removes
+    static final boolean ENABLED = !"none".equalsIgnoreCase(System.getProperty("os.trace", ""));
+
+    public enum EventType {
+        DISPATCH, EXECUTE, CONTEXT_SWITCH, TERMINATE, BLOCK, PREEMPT; // CONTEXT_SWITCH = quantum expired
+
+        private static final EventType[] VALUES = values();
+    }
+
+    // Receives one decoded record
+    public interface RecordConsumer {
+        void accept(EventType type, int time, int pid, int remaining, int units);
+    }
+
+    // Record layout: time, pid, event type, remaining burst, units executed
+    private static final int WIDTH = 5;
+
+    private final int[] records;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong published; // records [0, published) are complete
+    private long next;                  // writer-local sequence
+
+    public TraceBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // capacity is rounded up to a power of two
+    public TraceBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.records = new int[size * WIDTH];
+        this.published = new AtomicLong();
+        this.next = 0;
+    }
+
+    // append one record (single writer)
+    public void record(EventType type, int time, int pid, int remaining, int units) {
+        long seq = next++;
+        int base = (int) (seq & mask) * WIDTH;
+        VarHandle.storeStoreFence(); // readers see the slot marked (published) before it changes
+        records[base] = time;
+        records[base + 1] = pid;
+        records[base + 2] = type.ordinal();
+        records[base + 3] = remaining;
+        records[base + 4] = units;
+        published.lazySet(next);
+    }
+
+    /**
+     * Hand every record from sequence 'from' onwards that is still in the buffer to the consumer.
+     * Returns the sequence to continue from next time.
+     */
+    public long drain(long from, RecordConsumer consumer) {
+        long end = published.get();
+        if (from > end) from = 0; // buffer was cleared since the last drain
+        long start = Math.max(from, end - capacity);
+        for (long seq = start; seq < end; seq++) {
+            int base = (int) (seq & mask) * WIDTH;
+            int time = records[base];
+            int pid = records[base + 1];
+            int type = records[base + 2];
+            int remaining = records[base + 3];
+            int units = records[base + 4];
+            VarHandle.loadLoadFence(); // finish the copy before the check below
+            // The writer may have lapped us while we were copying: drop the torn record
+            if (published.get() - seq >= capacity) continue;
+            consumer.accept(EventType.VALUES[type], time, pid, remaining, units);
+        }
+        return end;
+    }
+
+    /**
+     * Total records written since the last clear
+     */
+    public long getWrittenCount() {
+        return published.get();
+    }
+
+    /**
+     * Records written but already overwritten, as seen from sequence 'from'
+     */
+    public long getOverwrittenCount(long from) {
+        return Math.max(0, published.get() - capacity - from);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // writer side only
+    public void clear() {
+        next = 0;
+        published.set(0);
+    }
+}
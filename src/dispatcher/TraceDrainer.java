@@ -0,0 +1,68 @@
+package dispatcher;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+// Background thread that renders new trace records of one or more dispatchers to a sink
+public class TraceDrainer implements Runnable {
+    private final List<Dispatcher> dispatchers;
+    private final long[] positions; // next sequence to read, per dispatcher
+    private final Consumer<String> sink;
+    private final long intervalMillis;
+    private volatile boolean running;
+    private java.lang.Thread thread;
+
+    public TraceDrainer(List<Dispatcher> dispatchers, Consumer<String> sink, long intervalMillis) {
+        this.dispatchers = new ArrayList<>(dispatchers);
+        this.positions = new long[dispatchers.size()];
+        this.sink = sink;
+        this.intervalMillis = intervalMillis;
+        this.running = false;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new java.lang.Thread(this, "OS-Trace-Drainer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // stop the thread and render whatever is still pending
+    public void stop() {
+        running = false;
+        java.lang.Thread t;
+        synchronized (this) {
+            t = thread;
+            thread = null;
+        }
+        if (t != null) {
+            t.interrupt();
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                java.lang.Thread.currentThread().interrupt();
+            }
+        }
+        drainNow();
+    }
+
+    // render everything written since the last drain
+    public synchronized void drainNow() {
+        for (int i = 0; i < dispatchers.size(); i++) {
+            positions[i] = dispatchers.get(i).drainTrace(positions[i], sink);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            drainNow();
+            try {
+                java.lang.Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package kernel;
+
+/**
+ * Cursor over process arrivals in non-decreasing arrival time.
+ * The kernel pulls one arrival at a time, only when the previous one has arrived,
+ * so a stream can be unbounded.
+ */
+public interface ArrivalStream {
+
+    // move to the next arrival, false when the stream is exhausted
+    boolean advance();
+
+    int getArrivalTime();
+
+    int getPriority();
+
+    int getBurstTime();
+}
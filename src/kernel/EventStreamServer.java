@@ -0,0 +1,210 @@
+package kernel;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dispatcher.Dispatcher;
+import dispatcher.TraceBuffer;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP endpoint that streams the dispatchers' trace as server-sent events (GET /events).
+ * Every client has its own thread and read positions, so the dispatchers only ever write to
+ * their trace rings and never wait for a browser:
+ *   - every interval the client's thread drains what each core recorded since the last drain
+ *     and sends it as 'trace' messages of at most MAX_BATCH records, one core per message
+ *   - records are delta-encoded: time and PID relative to the previous record of the message
+ *   - a slow client falls behind; once a ring laps it the overwritten records are skipped
+ *     and counted (EXECUTE included) in the message's 'dropped' field instead of stalling the kernel
+ * EXECUTE records are left out: a slice runs from its DISPATCH to the core's next record.
+ */
+public class EventStreamServer {
+    static final int MAX_BATCH = 4096;
+    private static final long HEARTBEAT_MILLIS = 1000; // comment line that detects closed clients
+
+    private final List<Dispatcher> dispatchers;
+    private final HttpServer server;
+    private final ExecutorService clients;
+    private final long intervalMillis;
+    private volatile boolean running;
+
+    // bound to the loopback address only; port 0 = any free port
+    public EventStreamServer(List<Dispatcher> dispatchers, int port, long intervalMillis) throws IOException {
+        this.dispatchers = new ArrayList<>(dispatchers);
+        this.intervalMillis = Math.max(1, intervalMillis);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.clients = Executors.newCachedThreadPool(task -> {
+            java.lang.Thread thread = new java.lang.Thread(task, "OS-Event-Stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(clients);
+        server.createContext("/events", this::stream);
+        this.running = false;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        server.start();
+    }
+
+    // close the listening socket and end every client's stream
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        server.stop(0);
+        clients.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "text/event-stream; charset=utf-8");
+        headers.set("Cache-Control", "no-cache");
+        headers.set("Access-Control-Allow-Origin", "*"); // the visualizer is opened from a file
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            Writer out = new OutputStreamWriter(new BufferedOutputStream(body, 1 << 16), StandardCharsets.UTF_8);
+            writeHello(out);
+            out.flush();
+            long[] positions = new long[dispatchers.size()]; // 0 = the oldest record still in the ring
+            Batch batch = new Batch(out);
+            long idleMillis = 0;
+            while (running) {
+                boolean sent = false;
+                for (int core = 0; core < dispatchers.size(); core++) {
+                    positions[core] = batch.drain(core, dispatchers.get(core).getTraceBuffer(), positions[core]);
+                    sent |= batch.hasSent();
+                }
+                idleMillis = sent ? 0 : idleMillis + intervalMillis;
+                if (idleMillis >= HEARTBEAT_MILLIS) {
+                    out.write(":\n\n");
+                    idleMillis = 0;
+                }
+                out.flush();
+                try {
+                    java.lang.Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // the client went away
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // core count and the names behind the event type numbers
+    private void writeHello(Writer out) throws IOException {
+        StringBuilder data = new StringBuilder("{\"cores\":").append(dispatchers.size()).append(",\"types\":[");
+        TraceBuffer.EventType[] types = TraceBuffer.EventType.values();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) data.append(',');
+            data.append('"').append(types[i].name()).append('"');
+        }
+        data.append("]}");
+        out.write("event: hello\ndata: " + data + "\n\n");
+    }
+
+    /**
+     * One client's message being built:
+     * {"core":c,"dropped":d,"events":[dTime,dPid,type,remaining, ...]}
+     * The first record's deltas are relative to time 0 and PID 0.
+     */
+    private static class Batch implements TraceBuffer.RecordConsumer {
+        private final Writer out;
+        private final StringBuilder events = new StringBuilder();
+        private int core;
+        private int count;
+        private long seen;       // records handed over by the ring, EXECUTE included
+        private long dropped;    // overwritten before this client read them
+        private int lastTime;
+        private int lastPid;
+        private boolean sent;
+        private IOException failure;
+
+        Batch(Writer out) {
+            this.out = out;
+        }
+
+        // send everything 'core' recorded from sequence 'from' on; returns the sequence to continue from
+        long drain(int core, TraceBuffer trace, long from) throws IOException {
+            this.core = core;
+            this.seen = 0;
+            this.dropped = 0;
+            this.sent = false;
+            reset();
+            long next = trace.drain(from, this);
+            if (failure != null) {
+                IOException e = failure;
+                failure = null;
+                throw e;
+            }
+            long start = from > next ? 0 : from; // the ring was cleared since the last drain
+            dropped += Math.max(0, next - start - seen);
+            if (count > 0 || dropped > 0) {
+                send();
+            }
+            return next;
+        }
+
+        boolean hasSent() {
+            return sent;
+        }
+
+        @Override
+        public void accept(TraceBuffer.EventType type, int time, int pid, int remaining, int units) {
+            seen++;
+            if (type == TraceBuffer.EventType.EXECUTE || failure != null) return;
+            if (count > 0) events.append(',');
+            events.append(time - lastTime).append(',').append(pid - lastPid).append(',')
+                .append(type.ordinal()).append(',').append(remaining);
+            lastTime = time;
+            lastPid = pid;
+            if (++count == MAX_BATCH) {
+                try {
+                    send();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+
+        private void send() throws IOException {
+            out.write("event: trace\ndata: {\"core\":" + core + ",\"dropped\":" + dropped + ",\"events\":[");
+            out.append(events);
+            out.write("]}\n\n");
+            sent = true;
+            dropped = 0;
+            reset();
+        }
+
+        private void reset() {
+            events.setLength(0);
+            count = 0;
+            lastTime = 0;
+            lastPid = 0;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package kernel;
+
+import process.Process;
+import dispatcher.Dispatcher;
+import device.Device;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Live scheduling KPIs of a kernel: latency histograms filled as processes terminate,
+ * a time-weighted ready-queue depth, and counters read from the dispatchers.
+ * Memory use is constant whatever the number of processes.
+ */
+public class KernelMetrics implements KernelMetricsMBean {
+    private final OSKernel kernel;
+    private final List<Dispatcher> cores;
+    private final LatencyHistogram waitingTimes;     // end - arrival - burst - I/O time
+    private final LatencyHistogram responseTimes;    // first run - arrival
+    private final LatencyHistogram turnaroundTimes;  // end - arrival
+    private final LatencyHistogram burstTimes;       // CPU time each process needed
+    private final LatencyHistogram lateness;         // end - deadline of real-time jobs, 0 when met
+    // ready-queue depth over time; own lock, never held while calling out
+    private final Object depthLock = new Object();
+    private long depthTimeSum;
+    private long depthTime;
+    private int maxDepth;
+
+    KernelMetrics(OSKernel kernel, List<Dispatcher> cores) {
+        this.kernel = kernel;
+        this.cores = cores;
+        this.waitingTimes = new LatencyHistogram();
+        this.responseTimes = new LatencyHistogram();
+        this.turnaroundTimes = new LatencyHistogram();
+        this.burstTimes = new LatencyHistogram();
+        this.lateness = new LatencyHistogram();
+        this.depthTimeSum = 0;
+        this.depthTime = 0;
+        this.maxDepth = 0;
+    }
+
+    // Called by the dispatchers when a process terminates; threads are not counted
+    void recordTermination(Process process) {
+        if (process.isThread()) return;
+        int turnaround = process.getEndTime() - process.getArrivalTime();
+        turnaroundTimes.record(turnaround);
+        waitingTimes.record(turnaround - process.getTotalBurstTime() - process.getIoTime());
+        responseTimes.record(process.getStartTime() - process.getArrivalTime());
+        burstTimes.record(process.getTotalBurstTime());
+        if (process.hasDeadline()) {
+            lateness.record(process.getEndTime() - process.getDeadline());
+        }
+    }
+
+    // the queue held 'depth' processes for 'duration' time units
+    void sampleReadyQueue(int depth, int duration) {
+        synchronized (depthLock) {
+            depthTimeSum += (long) depth * duration;
+            depthTime += duration;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+    }
+
+    // checkpoint: the histograms and ready-queue depth; the rest is read live from kernel and cores
+    void writeState(DataOutput out) throws IOException {
+        waitingTimes.writeState(out);
+        responseTimes.writeState(out);
+        turnaroundTimes.writeState(out);
+        burstTimes.writeState(out);
+        lateness.writeState(out);
+        synchronized (depthLock) {
+            out.writeLong(depthTimeSum);
+            out.writeLong(depthTime);
+            out.writeInt(maxDepth);
+        }
+    }
+
+    void readState(DataInput in) throws IOException {
+        waitingTimes.readState(in);
+        responseTimes.readState(in);
+        turnaroundTimes.readState(in);
+        burstTimes.readState(in);
+        lateness.readState(in);
+        synchronized (depthLock) {
+            depthTimeSum = in.readLong();
+            depthTime = in.readLong();
+            maxDepth = in.readInt();
+        }
+    }
+
+    public LatencyHistogram getWaitingTimes() {
+        return waitingTimes;
+    }
+
+    public LatencyHistogram getResponseTimes() {
+        return responseTimes;
+    }
+
+    public LatencyHistogram getTurnaroundTimes() {
+        return turnaroundTimes;
+    }
+
+    public LatencyHistogram getBurstTimes() {
+        return burstTimes;
+    }
+
+    public LatencyHistogram getLateness() {
+        return lateness;
+    }
+
+    @Override
+    public int getSimulationTime() {
+        return kernel.getSimulationTime();
+    }
+
+    @Override
+    public long getCreatedProcessCount() {
+        return kernel.getCreatedProcessCount();
+    }
+
+    @Override
+    public long getCompletedProcessCount() {
+        return turnaroundTimes.getCount();
+    }
+
+    @Override
+    public double getAverageWaitingTime() {
+        return waitingTimes.getMean();
+    }
+
+    @Override
+    public long getWaitingTimeP50() {
+        return waitingTimes.getPercentile(50);
+    }
+
+    @Override
+    public long getWaitingTimeP99() {
+        return waitingTimes.getPercentile(99);
+    }
+
+    @Override
+    public long getWaitingTimeP999() {
+        return waitingTimes.getPercentile(99.9);
+    }
+
+    @Override
+    public double getAverageResponseTime() {
+        return responseTimes.getMean();
+    }
+
+    @Override
+    public long getResponseTimeP50() {
+        return responseTimes.getPercentile(50);
+    }
+
+    @Override
+    public long getResponseTimeP99() {
+        return responseTimes.getPercentile(99);
+    }
+
+    @Override
+    public long getResponseTimeP999() {
+        return responseTimes.getPercentile(99.9);
+    }
+
+    @Override
+    public double getAverageTurnaroundTime() {
+        return turnaroundTimes.getMean();
+    }
+
+    @Override
+    public long getTurnaroundTimeP50() {
+        return turnaroundTimes.getPercentile(50);
+    }
+
+    @Override
+    public long getTurnaroundTimeP99() {
+        return turnaroundTimes.getPercentile(99);
+    }
+
+    @Override
+    public long getTurnaroundTimeP999() {
+        return turnaroundTimes.getPercentile(99.9);
+    }
+
+    @Override
+    public long getDeadlineJobCount() {
+        return lateness.getCount();
+    }
+
+    @Override
+    public long getDeadlineMisses() {
+        return lateness.getCountAbove(0);
+    }
+
+    @Override
+    public long getLatenessP99() {
+        return lateness.getPercentile(99);
+    }
+
+    @Override
+    public long getMaxLateness() {
+        return lateness.getMax();
+    }
+
+    @Override
+    public int getTimeQuantum() {
+        return kernel.getScheduler().getTimeQuantum();
+    }
+
+    @Override
+    public long getContextSwitches() {
+        long total = 0;
+        for (Dispatcher core : cores) {
+            total += core.getProcessSwitches() + core.getThreadSwitches();
+        }
+        return total;
+    }
+
+    @Override
+    public long getContextSwitchTime() {
+        long total = 0;
+        for (Dispatcher core : cores) {
+            total += core.getSwitchTime();
+        }
+        return total;
+    }
+
+    // busy time over elapsed time, all cores together
+    @Override
+    public double getCpuUtilization() {
+        long busy = 0;
+        long elapsed = 0;
+        for (Dispatcher core : cores) {
+            busy += core.getBusyTime();
+            elapsed += core.getCPUTimeUsed();
+        }
+        return elapsed == 0 ? 0.0 : (double) busy / elapsed;
+    }
+
+    // per device, in the order the devices were added
+    @Override
+    public double[] getDeviceUtilizations() {
+        List<Device> devices = kernel.getDevices();
+        double[] utilizations = new double[devices.size()];
+        for (int i = 0; i < utilizations.length; i++) {
+            utilizations[i] = devices.get(i).getUtilization(kernel.getSimulationTime());
+        }
+        return utilizations;
+    }
+
+    @Override
+    public int getReadyQueueDepth() {
+        return kernel.getReadyQueueSize();
+    }
+
+    @Override
+    public int getMaxReadyQueueDepth() {
+        synchronized (depthLock) {
+            return maxDepth;
+        }
+    }
+
+    @Override
+    public double getAverageReadyQueueDepth() {
+        synchronized (depthLock) {
+            return depthTime == 0 ? 0.0 : (double) depthTimeSum / depthTime;
+        }
+    }
+}
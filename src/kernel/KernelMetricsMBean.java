@@ -0,0 +1,61 @@
+package kernel;
+
+/**
+ * Scheduling KPIs of one kernel, exported over JMX (see OSKernel.registerMetricsMBean).
+ * Times are in simulation time units and are read live while the simulation runs.
+ */
+public interface KernelMetricsMBean {
+    int getSimulationTime();
+
+    long getCreatedProcessCount();
+
+    long getCompletedProcessCount();
+
+    double getAverageWaitingTime();
+
+    long getWaitingTimeP50();
+
+    long getWaitingTimeP99();
+
+    long getWaitingTimeP999();
+
+    double getAverageResponseTime();
+
+    long getResponseTimeP50();
+
+    long getResponseTimeP99();
+
+    long getResponseTimeP999();
+
+    double getAverageTurnaroundTime();
+
+    long getTurnaroundTimeP50();
+
+    long getTurnaroundTimeP99();
+
+    long getTurnaroundTimeP999();
+
+    long getDeadlineJobCount();
+
+    long getDeadlineMisses();
+
+    long getLatenessP99();
+
+    long getMaxLateness();
+
+    int getTimeQuantum();
+
+    long getContextSwitches();
+
+    long getContextSwitchTime();
+
+    double getCpuUtilization();
+
+    double[] getDeviceUtilizations();
+
+    int getReadyQueueDepth();
+
+    int getMaxReadyQueueDepth();
+
+    double getAverageReadyQueueDepth();
+}
@@ -0,0 +1,145 @@
+package kernel;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constant-memory histogram of non-negative times (waiting, response, turnaround).
+ * Values below 64 are counted exactly; above that every power of two is split into 32
+ * buckets, so a percentile is off by at most 1/32 of its value whatever the run length.
+ * Count, sum and max are exact.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;   // exact values 0..63
+    private static final int HALF_COUNT = SUB_COUNT / 2;   // buckets per power of two above that
+
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long max;
+
+    public LatencyHistogram() {
+        this.counts = new long[SUB_COUNT + (Long.SIZE - SUB_BITS) * HALF_COUNT];
+        this.count = 0;
+        this.sum = 0;
+        this.max = 0;
+    }
+
+    // negative values (e.g. unset times) are counted as 0
+    public synchronized void record(long value) {
+        value = Math.max(0, value);
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BITS + 1;
+        return shift * HALF_COUNT + (int) (value >>> shift);
+    }
+
+    // largest value that falls into the bucket
+    private static long highestValueOf(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = (index - SUB_COUNT) / HALF_COUNT + 1;
+        long sub = index - (long) shift * HALF_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Value at or below which the given percentage of recorded values fall (0 if empty)
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Number of time slices the recorded values would take with the given quantum
+     * (each value taken at the top of its bucket)
+     */
+    public synchronized long getSliceCount(long quantum) {
+        long slices = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                long value = Math.max(1, Math.min(highestValueOf(i), max));
+                slices += counts[i] * ((value + quantum - 1) / quantum);
+            }
+        }
+        return slices;
+    }
+
+    /**
+     * Number of recorded values above 'value'; exact for values below 64, else to bucket precision
+     */
+    public synchronized long getCountAbove(long value) {
+        long above = count;
+        for (int i = 0; i < counts.length && highestValueOf(i) <= value; i++) {
+            above -= counts[i];
+        }
+        return above;
+    }
+
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    // checkpoint: totals, then only the non-empty buckets
+    synchronized void writeState(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeLong(sum);
+        out.writeLong(max);
+        int used = 0;
+        for (long c : counts) {
+            if (c != 0) used++;
+        }
+        out.writeInt(used);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    synchronized void readState(DataInput in) throws IOException {
+        count = in.readLong();
+        sum = in.readLong();
+        max = in.readLong();
+        int used = in.readInt();
+        for (int i = 0; i < used; i++) {
+            int index = in.readShort();
+            counts[index] = in.readLong();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("mean %.2f | p50 %d | p99 %d | p99.9 %d | max %d",
+            getMean(), getPercentile(50), getPercentile(99), getPercentile(99.9), max);
+    }
+}
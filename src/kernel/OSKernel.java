@@ -1,93 +1,868 @@
 package kernel;
 
+import process.IoBurst;
 import process.Process;
+import process.ProcessTable;
+import process.RealTimeParams;
 import process.Thread;
 import scheduling.Scheduler;
 import dispatcher.Dispatcher;
+import dispatcher.ExecutionHistoryFile;
+import dispatcher.MultiCoreDispatcher;
+import dispatcher.TraceDrainer;
+import device.Device;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 // Main kernel: coordinates scheduler, dispatcher, processes
 public class OSKernel {
+    static final long CHECKPOINT_MAGIC = 0x4F53434B50543031L; // "OSCKPT01"
+    static final int CHECKPOINT_VERSION = 5;
+
     private Scheduler scheduler;
     private Dispatcher dispatcher;
-    private List<Process> processes;
+    private MultiCoreDispatcher multiCoreDispatcher; // null on a single-core kernel
+    private TraceDrainer traceDrainer;
+    private EventStreamServer eventStream; // set while the live event stream is served
+    private boolean verbose; // print banner and results from runSimulation
+    private ProcessTable processTable; // every process ever created, stored column-wise
     private Map<Integer, List<Thread>> processThreads;
     private int simulationTime;
-    private boolean simulationRunning;
+    private volatile boolean simulationRunning;
+    private volatile boolean stopRequested; // set by stopSimulation, ends a batched run (runCycles etc.)
+    private SimulationMode simulationMode;
+    private PriorityQueue<SimulationEvent> eventQueue;
+    private SimulationEvent pendingCpuEvent;
+    private int pendingArrivals;
+    private long eventSequence;
+    private ArrivalStream arrivalStream;  // null when arrivals are not streamed
+    private Process streamedArrival;      // the stream's next arrival, already posted as an event
+    private long streamedCount;           // arrivals taken from the stream so far
+    private long resumeStreamPosition;    // restored from a checkpoint taken while streaming: waits for resumeArrivals, else -1
+    private boolean recycleTerminated;    // release terminated rows, keep only their totals
+    private long releasedCount;
+    private KernelMetrics metrics;        // latency histograms and counters, also exported over JMX
+    private ObjectName metricsName;       // set while the metrics MBean is registered
+    private QuantumController quantumController; // null = fixed quantum
+    private List<Device> devices;         // indexed by device ID
+    private PriorityQueue<Reservation> reservations; // admitted real-time tasks, earliest end first
+    private double reservedDensity;       // sum over reservations, compared with the core count
+    private long rejectedTasks;           // real-time tasks refused by admission control
+    private IntConsumer progressListener; // called with the clock during batched runs, null = none
+    private int progressInterval;
+    private int nextProgressTime;
+
+    public enum SimulationMode {
+        TICK("Tick (one time unit per cycle)"),
+        EVENT_DRIVEN("Event-driven (jump to next event)");
+
+        private final String displayName;
+
+        SimulationMode(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
 
     // init kernel
     public OSKernel(Scheduler.SchedulingAlgorithm algorithm, int timeQuantum) {
-        this.scheduler = new Scheduler(algorithm, timeQuantum);
-        this.dispatcher = new Dispatcher(scheduler);
-        this.processes = new ArrayList<>();
+        this(algorithm, timeQuantum, 1);
+    }
+
+    // init kernel with N simulated cores
+    public OSKernel(Scheduler.SchedulingAlgorithm algorithm, int timeQuantum, int coreCount) {
+        this(new Scheduler(algorithm, timeQuantum), coreCount);
+    }
+
+    // init kernel around a prepared scheduler (e.g. a concurrent one)
+    public OSKernel(Scheduler scheduler, int coreCount) {
+        this.scheduler = scheduler;
+        if (coreCount > 1) {
+            this.multiCoreDispatcher = new MultiCoreDispatcher(scheduler, coreCount);
+            this.dispatcher = multiCoreDispatcher.getCores().get(0);
+        } else {
+            this.multiCoreDispatcher = null;
+            this.dispatcher = new Dispatcher(scheduler);
+        }
+        this.processTable = new ProcessTable();
         this.processThreads = new HashMap<>();
         this.simulationTime = 0;
         this.simulationRunning = false;
+        this.simulationMode = SimulationMode.TICK;
+        this.verbose = true;
+        this.eventQueue = new PriorityQueue<>();
+        this.pendingCpuEvent = null;
+        this.pendingArrivals = 0;
+        this.eventSequence = 0;
+        this.arrivalStream = null;
+        this.streamedArrival = null;
+        this.streamedCount = 0;
+        this.resumeStreamPosition = -1;
+        this.recycleTerminated = false;
+        this.releasedCount = 0;
+        this.metrics = new KernelMetrics(this, allDispatchers());
+        for (Dispatcher d : allDispatchers()) {
+            d.setTerminationListener(metrics::recordTermination);
+            d.setIoListener(this::submitIo);
+        }
+        this.metricsName = null;
+        this.quantumController = null;
+        this.devices = new ArrayList<>();
+        this.reservations = new PriorityQueue<>(Comparator.comparingInt((Reservation r) -> r.until));
+        this.reservedDensity = 0;
+        this.rejectedTasks = 0;
+    }
+
+    // CPU share a real-time task holds until its last job's deadline
+    private static class Reservation {
+        final int until;
+        final double density;
+
+        Reservation(int until, double density) {
+            this.until = until;
+            this.density = density;
+        }
     }
 
     // new process
     public Process createProcess(String processName, int priority, int burstTime) {
-        Process process = new Process(processName, priority, burstTime);
-        processes.add(process);
-        scheduler.addProcess(process);
-        processThreads.put(process.getPID(), new ArrayList<>());
+        return createProcess(processName, priority, burstTime, simulationTime);
+    }
+
+    // new process that arrives later (stays NEW until its arrival event)
+    public Process createProcess(String processName, int priority, int burstTime, int arrivalTime) {
+        return admit(processTable.add(processName, priority, burstTime), arrivalTime);
+    }
+
+    /**
+     * New process that alternates CPU and I/O bursts: cpuBursts[0], ioBursts[0], cpuBursts[1], ...
+     * (one I/O burst fewer than CPU bursts). Each I/O burst blocks the process on its device.
+     */
+    public Process createProcess(String processName, int priority, int[] cpuBursts, IoBurst[] ioBursts, int arrivalTime) {
+        for (IoBurst io : ioBursts) {
+            if (io.device < 0 || io.device >= devices.size()) {
+                throw new IllegalArgumentException("Unknown device " + io.device + " for " + processName);
+            }
+        }
+        return admit(processTable.add(processName, priority, cpuBursts, ioBursts), arrivalTime);
+    }
+
+    /**
+     * New real-time task: 'jobs' jobs released every params.period units from arrivalTime,
+     * each with a CPU burst of params.wcet and due params.deadline units after its release.
+     * Every job is a process of its own (name#1, name#2, ... when there are several).
+     *
+     * Admission control: the task is admitted only if its density, wcet / min(deadline, period),
+     * plus that of the tasks admitted before it whose last deadline has not passed stays within
+     * the core count. On one core this is the EDF schedulability test; on several it is only
+     * necessary, so misses are still possible. Returns the first job, or null if rejected.
+     * Only EDF schedules by deadline; other algorithms run the jobs as normal processes.
+     */
+    public Process createProcess(String processName, int priority, RealTimeParams params, int jobs, int arrivalTime) {
+        if (params.wcet < 1 || params.deadline < 1 || params.period < 0) {
+            throw new IllegalArgumentException("Real-time tasks need WCET and deadline of at least 1 unit, got " + params);
+        }
+        if (jobs < 1 || (jobs > 1 && params.period < 1)) {
+            throw new IllegalArgumentException("Need at least one job, and a period for several: " + jobs + " jobs, " + params);
+        }
+        if (!reserve(params, jobs, Math.max(arrivalTime, simulationTime))) {
+            rejectedTasks++;
+            return null;
+        }
+        Process first = null;
+        for (int job = 0; job < jobs; job++) {
+            String name = jobs > 1 && processName != null ? processName + "#" + (job + 1) : processName;
+            Process process = admit(processTable.add(name, priority, params), arrivalTime + job * params.period);
+            if (first == null) first = process;
+        }
+        return first;
+    }
+
+    // drop reservations that have ended, then admit the task if it still fits
+    private boolean reserve(RealTimeParams params, int jobs, int release) {
+        while (!reservations.isEmpty() && reservations.peek().until <= simulationTime) {
+            reservations.poll();
+        }
+        double reserved = 0;
+        for (Reservation reservation : reservations) {
+            reserved += reservation.density;
+        }
+        reservedDensity = reserved;
+        int cores = multiCoreDispatcher != null ? multiCoreDispatcher.getCoreCount() : 1;
+        // small slack so that e.g. three tasks of 1/3 fill a core exactly
+        if (reserved + params.getDensity() > cores + 1e-9) {
+            return false;
+        }
+        long until = (long) release + (long) (jobs - 1) * params.period + params.deadline;
+        reservations.add(new Reservation((int) Math.min(Integer.MAX_VALUE, until), params.getDensity()));
+        reservedDensity += params.getDensity();
+        return true;
+    }
+
+    /**
+     * CPU share reserved by admitted real-time tasks (as of the last admission), in cores
+     */
+    public double getReservedDensity() {
+        return reservedDensity;
+    }
+
+    public long getRejectedTaskCount() {
+        return rejectedTasks;
+    }
+
+    private Process admit(Process process, int arrivalTime) {
+        process.setArrivalTime(Math.max(arrivalTime, simulationTime));
+        if (process.getArrivalTime() <= simulationTime) {
+            scheduler.addProcess(process);
+        } else {
+            postEvent(SimulationEvent.Type.ARRIVAL, process.getArrivalTime(), process);
+        }
         return process;
     }
 
-    // new thread
+    /**
+     * Feed arrivals from a stream: each arrival is created only once the previous one has
+     * arrived, so only one future arrival is ever held in memory
+     */
+    public void streamArrivals(ArrivalStream stream) {
+        this.arrivalStream = stream;
+        this.streamedArrival = null;
+        this.streamedCount = 0;
+        this.resumeStreamPosition = -1;
+        pullArrivals();
+    }
+
+    /**
+     * Continue the arrival stream of a kernel restored from a checkpoint: the stream must
+     * yield the same arrivals as the one the checkpointed kernel used (e.g. a new stream of
+     * the same WorkloadGenerator); the arrivals already taken are skipped
+     */
+    public void resumeArrivals(ArrivalStream stream) {
+        if (resumeStreamPosition < 0) {
+            throw new IllegalStateException("Kernel was not restored from a checkpoint of a streamed run");
+        }
+        for (long i = 0; i < resumeStreamPosition; i++) {
+            if (!stream.advance()) {
+                throw new IllegalArgumentException("Stream ended after " + i + " arrivals, checkpoint was taken after "
+                    + resumeStreamPosition);
+            }
+        }
+        this.arrivalStream = stream;
+        this.streamedCount = resumeStreamPosition;
+        this.resumeStreamPosition = -1;
+        pullArrivals();
+    }
+
+    // create arrivals from the stream until one lies in the future
+    private void pullArrivals() {
+        while (arrivalStream != null && streamedArrival == null) {
+            if (!arrivalStream.advance()) {
+                arrivalStream = null;
+                break;
+            }
+            streamedCount++;
+            Process process = createProcess(null, arrivalStream.getPriority(), arrivalStream.getBurstTime(),
+                arrivalStream.getArrivalTime());
+            if (process.getArrivalTime() > simulationTime) {
+                streamedArrival = process;
+            }
+        }
+    }
+
+    // new thread: scheduled like a process with the thread priority, arriving no earlier than its parent;
+    // the parent terminates once its own burst and all its threads are done
     public Thread createThread(int parentPID, String threadName, int executionTime, Thread.ThreadPriority priority) {
-        Thread thread = new Thread(parentPID, threadName, executionTime, priority);
-        List<Thread> threads = processThreads.get(parentPID);
-        if (threads != null) {
-            threads.add(thread);
-            return thread;
+        Process parent = processTable.findByPID(parentPID);
+        if (parent == null || parent.isThread() || parent.getState() == process.ProcessState.TERMINATED) {
+            return null;
+        }
+        Thread thread = processTable.addThread(parent, threadName, executionTime, priority);
+        Process entity = thread.asProcess();
+        entity.setArrivalTime(Math.max(parent.getArrivalTime(), simulationTime));
+        if (entity.getArrivalTime() <= simulationTime) {
+            scheduler.addProcess(entity);
+        } else {
+            postEvent(SimulationEvent.Type.ARRIVAL, entity.getArrivalTime(), entity);
         }
-        return null;
+        // Thread lists are only created for processes that actually have threads
+        processThreads.computeIfAbsent(parentPID, pid -> new ArrayList<>()).add(thread);
+        return thread;
     }
 
     // run one kernel cycle
-    public void runKernelCycle() {
+    public synchronized void runKernelCycle() {
         // Dispatcher advances "CPU time"; we keep Scheduler.currentTime aligned to CPU time inside Dispatcher.
-        dispatcher.runCycle();
+        processDueEvents();
+        cpuRunCycle();
+        metrics.sampleReadyQueue(getReadyQueueSize(), 1);
         simulationTime++;
+        releaseTerminated();
+        retuneQuantum();
+    }
+
+    private void cpuRunCycle() {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.runCycle();
+        } else {
+            dispatcher.runCycle();
+        }
+    }
+
+    private void cpuRunCycles(int cycles) {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.runCycles(cycles);
+        } else {
+            dispatcher.runCycles(cycles);
+        }
+    }
+
+    // time until the next completion / quantum expiry on any core, -1 if every core is idle
+    private int cpuTimeToNextEvent() {
+        if (multiCoreDispatcher != null) {
+            Dispatcher core = multiCoreDispatcher.getNextEventCore();
+            return core != null ? core.getTimeToNextEvent() : -1;
+        }
+        return dispatcher.getTimeToNextEvent();
+    }
+
+    private void cpuDispatch() {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.dispatch();
+        } else {
+            dispatcher.dispatch();
+        }
+    }
+
+    private void cpuExecuteTimeUnits(int units) {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.executeTimeUnits(units);
+        } else {
+            dispatcher.executeTimeUnits(units);
+        }
+    }
+
+    private boolean isCPUIdle() {
+        return multiCoreDispatcher != null ? multiCoreDispatcher.isCPUIdle() : dispatcher.isCPUIdle();
+    }
+
+    private void postEvent(SimulationEvent.Type type, int time, Process process) {
+        SimulationEvent event = new SimulationEvent(type, time, process, eventSequence++);
+        eventQueue.add(event);
+        if (event.isCpuEvent()) {
+            pendingCpuEvent = event;
+        } else if (type == SimulationEvent.Type.ARRIVAL) {
+            pendingArrivals++;
+        }
+    }
+
+    /**
+     * Add an I/O device; its ID (0, 1, ...) is what IoBurst.device refers to
+     */
+    public Device addDevice(String name, Device.Discipline discipline, int seekTime) {
+        Device device = new Device(devices.size(), name, discipline, seekTime);
+        devices.add(device);
+        return device;
+    }
+
+    public List<Device> getDevices() {
+        return Collections.unmodifiableList(devices);
+    }
+
+    // A dispatcher blocked the process for I/O: queue it on its device, the CPU runs on meanwhile
+    private void submitIo(Process process) {
+        Device device = devices.get(process.getIoDevice());
+        if (device.submit(process, simulationTime)) {
+            postEvent(SimulationEvent.Type.IO_COMPLETION, device.getCompletionTime(), process);
+        }
+    }
+
+    // Pop every event that is due: arrivals are admitted, CPU events are handled by the next dispatch()
+    private void processDueEvents() {
+        while (!eventQueue.isEmpty() && eventQueue.peek().getTime() <= simulationTime) {
+            SimulationEvent event = eventQueue.poll();
+            if (event.getType() == SimulationEvent.Type.ARRIVAL) {
+                pendingArrivals--;
+                scheduler.addProcess(event.getProcess());
+                if (event.getProcess().equals(streamedArrival)) {
+                    streamedArrival = null;
+                    pullArrivals();
+                }
+            } else if (event.getType() == SimulationEvent.Type.IO_COMPLETION) {
+                Device device = devices.get(event.getProcess().getIoDevice());
+                Process done = device.complete(simulationTime);
+                done.completeIo();
+                scheduler.wakeProcess(done);
+                if (device.isBusy()) {
+                    postEvent(SimulationEvent.Type.IO_COMPLETION, device.getCompletionTime(), device.getCurrentProcess());
+                }
+            } else if (event == pendingCpuEvent) {
+                pendingCpuEvent = null;
+            }
+        }
+    }
+
+    // Make sure the earliest completion / quantum expiry on the CPU is in the queue
+    private void scheduleCpuEvent() {
+        Dispatcher core = multiCoreDispatcher != null ? multiCoreDispatcher.getNextEventCore() : dispatcher;
+        if (core == null) return;
+        Process running = core.getCurrentRunningProcess();
+        if (running == null) return;
+
+        int delta = core.getTimeToNextEvent();
+        int time = simulationTime + delta;
+        // An event already pending at or before this time will wake the loop first
+        if (pendingCpuEvent != null && pendingCpuEvent.getTime() <= time) return;
+
+        SimulationEvent.Type type = delta >= running.getBurstRemainingTime()
+            ? SimulationEvent.Type.COMPLETION
+            : SimulationEvent.Type.QUANTUM_EXPIRY;
+        postEvent(type, time, running);
+    }
+
+    /**
+     * Release the rows of terminated processes once they are done (their times are kept
+     * in the metrics histograms), so long streamed runs use constant memory.
+     * In-memory execution history is turned off as well (record it with recordHistoryTo instead).
+     */
+    public void setRecycleTerminated(boolean recycleTerminated) {
+        this.recycleTerminated = recycleTerminated;
+        for (Dispatcher d : allDispatchers()) {
+            d.setKeepHistory(!recycleTerminated);
+        }
+    }
+
+    // free the rows of terminated processes (their times are already in the metrics), with the rows of their threads
+    private void releaseTerminated() {
+        if (!recycleTerminated || terminatedProcessCount() == 0) return;
+        for (Process p : processTable.viewsInState(process.ProcessState.TERMINATED)) {
+            if (p.isThread()) continue; // released with its process
+            releasedCount++;
+            List<Thread> threads = processThreads.remove(p.getPID());
+            if (threads != null) {
+                for (Thread t : threads) {
+                    processTable.release(t.asProcess());
+                }
+            }
+            processTable.release(p);
+        }
+    }
+
+    // terminated rows that are processes, not threads
+    private int terminatedProcessCount() {
+        return processTable.getStateCount(process.ProcessState.TERMINATED)
+            - processTable.getThreadStateCount(process.ProcessState.TERMINATED);
+    }
+
+    private boolean hasPendingArrivals() {
+        return pendingArrivals > 0;
+    }
+
+    private boolean hasIncompleteProcesses() {
+        return scheduler.getActiveProcessCount() > 0;
+    }
+
+    /**
+     * Check if every process created on this kernel has terminated (O(1))
+     */
+    public boolean isAllProcessesTerminated() {
+        return processTable.getStateCount(process.ProcessState.TERMINATED) == processTable.size();
     }
 
     /**
      * Run the complete simulation
      */
     public void runSimulation(int maxTime) {
-        System.out.println("========== OS KERNEL SIMULATION STARTED ==========");
-        System.out.println("Scheduling Algorithm: " + scheduler.getAlgorithm().getDisplayName());
-        System.out.println("Time Quantum: " + scheduler.getTimeQuantum() + " units\n");
+        if (resumeStreamPosition >= 0) {
+            throw new IllegalStateException("Restored from a streamed run: call resumeArrivals before running");
+        }
+        if (verbose) {
+            System.out.println("========== OS KERNEL SIMULATION STARTED ==========");
+            System.out.println("Scheduling Algorithm: " + scheduler.getAlgorithm().getDisplayName());
+            System.out.println("Time Quantum: " + scheduler.getTimeQuantum() + " units");
+            if (multiCoreDispatcher != null) {
+                System.out.println("CPU Cores: " + multiCoreDispatcher.getCoreCount());
+            }
+            System.out.println("Simulation Mode: " + simulationMode.getDisplayName() + "\n");
+        }
         
         simulationRunning = true;
         scheduler.setRunning(true);
 
+        if (simulationMode == SimulationMode.EVENT_DRIVEN) {
+            runEventDriven(maxTime);
+        } else {
+            runTicks(maxTime);
+        }
+
+        simulationRunning = false;
+        scheduler.setRunning(false);
+        flushHistory();
+        if (verbose) {
+            System.out.println("\n========== OS KERNEL SIMULATION COMPLETED ==========");
+            printSimulationResults();
+        }
+    }
+
+    // One dispatcher cycle per time unit
+    private void runTicks(int maxTime) {
         // Continue simulation until no more processes or max time reached
         while (simulationRunning && simulationTime < maxTime) {
-            // Check if there are any incomplete processes
-            List<Process> allProcesses = scheduler.getAllProcesses();
-            boolean hasIncompleteProcesses = false;
-            
-            for (Process p : allProcesses) {
-                if (p.getState() != process.ProcessState.TERMINATED) {
-                    hasIncompleteProcesses = true;
-                    break;
-                }
-            }
+            processDueEvents();
 
-            if (!hasIncompleteProcesses && dispatcher.isCPUIdle()) {
+            if (!hasIncompleteProcesses() && isCPUIdle() && !hasPendingArrivals()) {
                 break; // All processes completed
             }
 
-            dispatcher.runCycle();
+            cpuRunCycle();
+            metrics.sampleReadyQueue(getReadyQueueSize(), 1);
             simulationTime++;
+            releaseTerminated();
+            retuneQuantum();
         }
+    }
 
-        simulationRunning = false;
-        scheduler.setRunning(false);
-        System.out.println("\n========== OS KERNEL SIMULATION COMPLETED ==========");
-        printSimulationResults();
+    // Jump straight to the next arrival, quantum expiry or completion
+    private void runEventDriven(int maxTime) {
+        advance(maxTime, true);
+    }
+
+    // Advance the clock to untilTime in segments that end at the next event: an arrival, an I/O
+    // completion, a completion / quantum expiry on a core or a quantum retune. Event-driven mode
+    // jumps each segment at once; tick mode runs it as a batch of cycles, so the trace stays per tick.
+    // Returns false if it stopped because no work is left (only with untilIdle).
+    private boolean advance(int untilTime, boolean untilIdle) {
+        while (simulationRunning && simulationTime < untilTime) {
+            processDueEvents();
+
+            if (untilIdle && !hasIncompleteProcesses() && isCPUIdle() && !hasPendingArrivals()) {
+                return false; // All processes completed
+            }
+
+            cpuDispatch();
+            int delta;
+            if (simulationMode == SimulationMode.EVENT_DRIVEN) {
+                scheduleCpuEvent();
+                // Nothing left to wait for: advance a single idle unit, same as tick mode
+                delta = eventQueue.isEmpty() ? 1 : eventQueue.peek().getTime() - simulationTime;
+            } else {
+                delta = cpuTimeToNextEvent();
+                if (!eventQueue.isEmpty()) {
+                    int toEvent = eventQueue.peek().getTime() - simulationTime;
+                    delta = delta < 0 ? toEvent : Math.min(delta, toEvent);
+                }
+                if (delta < 0) {
+                    // idle with no events: nothing can change before untilTime, but when running
+                    // until idle step a single unit so the loop sees the last process terminate
+                    delta = untilIdle ? 1 : untilTime - simulationTime;
+                }
+            }
+            delta = Math.max(1, Math.min(delta, untilTime - simulationTime));
+            if (quantumController != null) {
+                // stop at the retune time, like tick mode does
+                delta = Math.max(1, Math.min(delta, quantumController.getNextRetuneTime() - simulationTime));
+            }
+
+            // the queue only changes at events, so one sample covers the whole jump
+            metrics.sampleReadyQueue(getReadyQueueSize(), delta);
+            if (simulationMode == SimulationMode.EVENT_DRIVEN) {
+                cpuExecuteTimeUnits(delta);
+            } else {
+                cpuRunCycles(delta);
+            }
+            simulationTime += delta;
+            releaseTerminated();
+            retuneQuantum();
+        }
+        return true;
+    }
+
+    /**
+     * Advance the clock by 'cycles' time units, with the same history and trace as that many
+     * runKernelCycle calls but without a lock round trip and scheduler call per tick.
+     * Returns the time units advanced (less than asked if stopSimulation was called).
+     */
+    public int runCycles(int cycles) {
+        long until;
+        synchronized (this) {
+            until = (long) simulationTime + Math.max(0, cycles);
+        }
+        return runBatch((int) Math.min(Integer.MAX_VALUE, until), false);
+    }
+
+    /**
+     * Advance the clock to 'time' (see runCycles); returns the time units advanced
+     */
+    public int runUntil(int time) {
+        return runBatch(time, false);
+    }
+
+    /**
+     * Run until every process has terminated and no arrival is pending, like runSimulation
+     * without a time limit or printing. Never returns on an endless arrival stream unless
+     * stopSimulation is called (e.g. from the progress listener).
+     */
+    public int runUntilIdle() {
+        return runBatch(Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * Call 'listener' with the simulation time every 'interval' time units during runCycles,
+     * runUntil and runUntilIdle. It runs outside the kernel lock, between two batches, so it
+     * may read metrics, take a checkpoint or stop the run; null removes it.
+     */
+    public synchronized void setProgressListener(IntConsumer listener, int interval) {
+        if (listener != null && interval < 1) {
+            throw new IllegalArgumentException("Progress interval must be at least 1: " + interval);
+        }
+        this.progressListener = listener;
+        this.progressInterval = interval;
+        this.nextProgressTime = simulationTime + interval;
+    }
+
+    // Each batch holds the kernel lock once and ends at the next progress time
+    private int runBatch(int untilTime, boolean untilIdle) {
+        if (resumeStreamPosition >= 0) {
+            throw new IllegalStateException("Restored from a streamed run: call resumeArrivals before running");
+        }
+        stopRequested = false;
+        int start;
+        synchronized (this) {
+            start = simulationTime;
+        }
+        int reached = start;
+        boolean more = true;
+        while (more && !stopRequested) {
+            IntConsumer listener;
+            synchronized (this) {
+                listener = progressListener;
+                int stop = listener != null ? Math.min(untilTime, nextProgressTime) : untilTime;
+                simulationRunning = true;
+                scheduler.setRunning(true);
+                more = advance(stop, untilIdle) && simulationRunning && simulationTime < untilTime;
+                simulationRunning = false;
+                scheduler.setRunning(false);
+                reached = simulationTime;
+                if (listener != null && reached >= nextProgressTime) {
+                    // once per crossing, however far the batch went past it
+                    nextProgressTime = reached - (reached - nextProgressTime) % progressInterval + progressInterval;
+                } else {
+                    listener = null;
+                }
+            }
+            if (listener != null) {
+                listener.accept(reached);
+            }
+        }
+        flushHistory();
+        return reached - start;
+    }
+
+    private void retuneQuantum() {
+        if (quantumController != null && simulationTime >= quantumController.getNextRetuneTime()) {
+            quantumController.retune(this);
+        }
+    }
+
+    /**
+     * Write a checkpoint of the kernel to a file (see saveCheckpoint(OutputStream))
+     */
+    public void saveCheckpoint(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            saveCheckpoint(out);
+        }
+    }
+
+    /**
+     * Write the complete kernel state as one binary stream, for loadCheckpoint to continue
+     * from exactly this point (between runs, e.g. after runSimulation(t) or stopSimulation).
+     *
+     * Layout, in order:
+     *   header     magic "OSCKPT01", version, algorithm, concurrent flag, core count, quantum
+     *   kernel     clock, mode, counters, event sequence, arrival-stream position, real-time reservations
+     *   processes  the process table, column by column (PID counter included)
+     *   devices    configuration and queues
+     *   queues     global run queue, then per core: local run queue and dispatcher
+     *   events     pending events with their sequence numbers
+     *   metrics    histograms, ready-queue depth, quantum controller
+     *   trailer    magic again, to detect a truncated file
+     * Not written: the table's name loader, history files, trace buffers, the JMX registration,
+     * and the arrival stream itself (only its position, see resumeArrivals).
+     */
+    public synchronized void saveCheckpoint(OutputStream stream) throws IOException {
+        if (simulationRunning) {
+            throw new IllegalStateException("Stop the simulation before taking a checkpoint");
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        out.writeLong(CHECKPOINT_MAGIC);
+        out.writeInt(CHECKPOINT_VERSION);
+        out.writeUTF(scheduler.getAlgorithm().name());
+        out.writeBoolean(scheduler.isConcurrent());
+        out.writeInt(multiCoreDispatcher != null ? multiCoreDispatcher.getCoreCount() : 1);
+        out.writeInt(scheduler.getTimeQuantum());
+
+        out.writeInt(simulationTime);
+        out.writeUTF(simulationMode.name());
+        out.writeBoolean(verbose);
+        out.writeBoolean(recycleTerminated);
+        out.writeLong(releasedCount);
+        out.writeLong(eventSequence);
+        out.writeInt(pendingArrivals);
+        out.writeLong(arrivalStream != null ? streamedCount : resumeStreamPosition);
+        out.writeInt(streamedArrival != null ? streamedArrival.getPID() : -1);
+        out.writeLong(rejectedTasks);
+        out.writeInt(reservations.size());
+        for (Reservation reservation : reservations) {
+            out.writeInt(reservation.until);
+            out.writeDouble(reservation.density);
+        }
+
+        processTable.writeState(out);
+        out.writeInt(devices.size());
+        for (Device device : devices) {
+            out.writeUTF(device.getName());
+            out.writeUTF(device.getDiscipline().name());
+            out.writeInt(device.getSeekTime());
+            device.writeState(out);
+        }
+
+        scheduler.writeState(out);
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.writeState(out);
+        } else {
+            dispatcher.writeState(out);
+        }
+
+        // events at the same time keep their order through the sequence numbers
+        out.writeInt(eventQueue.size());
+        for (SimulationEvent event : eventQueue) {
+            out.writeByte(event.getType().ordinal());
+            out.writeInt(event.getTime());
+            out.writeInt(event.getProcess().getPID());
+            out.writeLong(event.getSequence());
+        }
+        out.writeLong(pendingCpuEvent != null ? pendingCpuEvent.getSequence() : -1);
+
+        metrics.writeState(out);
+        out.writeBoolean(quantumController != null);
+        if (quantumController != null) {
+            quantumController.writeState(out);
+        }
+        out.writeLong(CHECKPOINT_MAGIC);
+        out.flush();
+    }
+
+    /**
+     * Read a checkpoint file into a new kernel (see loadCheckpoint(InputStream))
+     */
+    public static OSKernel loadCheckpoint(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return loadCheckpoint(in);
+        }
+    }
+
+    /**
+     * New kernel in exactly the state saveCheckpoint wrote; running it gives the same history
+     * as the original would have. A checkpoint of a streamed run needs resumeArrivals first.
+     */
+    public static OSKernel loadCheckpoint(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        if (in.readLong() != CHECKPOINT_MAGIC) {
+            throw new IOException("Not a kernel checkpoint");
+        }
+        int version = in.readInt();
+        if (version != CHECKPOINT_VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version);
+        }
+        Scheduler.SchedulingAlgorithm algorithm = Scheduler.SchedulingAlgorithm.valueOf(in.readUTF());
+        boolean concurrent = in.readBoolean();
+        int coreCount = in.readInt();
+        OSKernel kernel = new OSKernel(new Scheduler(algorithm, in.readInt(), concurrent), coreCount);
+
+        kernel.simulationTime = in.readInt();
+        kernel.simulationMode = SimulationMode.valueOf(in.readUTF());
+        kernel.verbose = in.readBoolean();
+        kernel.recycleTerminated = in.readBoolean();
+        kernel.releasedCount = in.readLong();
+        kernel.eventSequence = in.readLong();
+        kernel.pendingArrivals = in.readInt();
+        kernel.resumeStreamPosition = in.readLong();
+        int streamedPid = in.readInt();
+        kernel.rejectedTasks = in.readLong();
+        int reservationCount = in.readInt();
+        for (int i = 0; i < reservationCount; i++) {
+            Reservation reservation = new Reservation(in.readInt(), in.readDouble());
+            kernel.reservations.add(reservation);
+            kernel.reservedDensity += reservation.density;
+        }
+
+        ProcessTable table = ProcessTable.readState(in);
+        kernel.processTable = table;
+        kernel.streamedArrival = streamedPid >= 0 ? table.findByPID(streamedPid) : null;
+        // thread lists in creation (PID) order
+        for (Process p : table.views()) {
+            if (p.isThread()) {
+                kernel.processThreads.computeIfAbsent(p.getParentPID(), pid -> new ArrayList<>()).add(p.asThread());
+            }
+        }
+        for (List<Thread> threads : kernel.processThreads.values()) {
+            threads.sort(Comparator.comparingInt(Thread::getThreadID));
+        }
+        int deviceCount = in.readInt();
+        for (int i = 0; i < deviceCount; i++) {
+            String name = in.readUTF();
+            Device.Discipline discipline = Device.Discipline.valueOf(in.readUTF());
+            kernel.addDevice(name, discipline, in.readInt()).readState(in, table::findByPID);
+        }
+
+        kernel.scheduler.readState(in, table);
+        if (kernel.multiCoreDispatcher != null) {
+            kernel.multiCoreDispatcher.readState(in, table);
+        } else {
+            kernel.dispatcher.readState(in, table::findByPID);
+        }
+
+        SimulationEvent.Type[] types = SimulationEvent.Type.values();
+        int eventCount = in.readInt();
+        List<SimulationEvent> events = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            SimulationEvent.Type type = types[in.readByte()];
+            int time = in.readInt();
+            Process process = table.findByPID(in.readInt());
+            events.add(new SimulationEvent(type, time, process, in.readLong()));
+        }
+        long pendingCpuSequence = in.readLong();
+        for (SimulationEvent event : events) {
+            kernel.eventQueue.add(event);
+            if (event.getSequence() == pendingCpuSequence) {
+                kernel.pendingCpuEvent = event;
+            }
+        }
+
+        kernel.metrics.readState(in);
+        if (in.readBoolean()) {
+            kernel.quantumController = QuantumController.readState(in);
+        }
+        if (in.readLong() != CHECKPOINT_MAGIC) {
+            throw new IOException("Checkpoint is truncated or corrupt");
+        }
+        return kernel;
     }
 
     /**
@@ -100,40 +875,128 @@ public class OSKernel {
         System.out.println("--------------------------------------------");
 
         List<Process> allProcesses = scheduler.getAllProcesses();
-        int totalWaitingTime = 0;
-        int totalTurnaroundTime = 0;
 
         for (Process p : allProcesses) {
-            if (p.getState() == process.ProcessState.TERMINATED) {
-                int turnaroundTime = p.getEndTime() - 0; // Assuming start at 0
-                int waitingTime = turnaroundTime - p.getTotalBurstTime();
-                
-                System.out.printf("PID: %d | Name: %s | Priority: %d | End Time: %d | Turnaround Time: %d\n",
-                    p.getPID(), p.getProcessName(), p.getPriority(), p.getEndTime(), turnaroundTime);
-                
-                totalWaitingTime += waitingTime;
-                totalTurnaroundTime += turnaroundTime;
+            if (p.getState() == process.ProcessState.TERMINATED && !p.isThread()) {
+                System.out.printf("PID: %d | Name: %s | Priority: %d | Arrival: %d | End Time: %d | Turnaround Time: %d\n",
+                    p.getPID(), p.getProcessName(), p.getPriority(), p.getArrivalTime(), p.getEndTime(), turnaroundTimeOf(p));
             }
         }
 
-        int completedProcesses = (int) allProcesses.stream()
-            .filter(p -> p.getState() == process.ProcessState.TERMINATED)
-            .count();
+        if (metrics.getCompletedProcessCount() > 0) {
+            System.out.println("\nWaiting Time:    " + metrics.getWaitingTimes());
+            System.out.println("Response Time:   " + metrics.getResponseTimes());
+            System.out.println("Turnaround Time: " + metrics.getTurnaroundTimes());
+        }
+        if (metrics.getDeadlineJobCount() > 0 || rejectedTasks > 0) {
+            System.out.printf("Deadlines: %d met, %d missed | Rejected Tasks: %d | Reserved: %.2f cores\n",
+                metrics.getDeadlineJobCount() - metrics.getDeadlineMisses(), metrics.getDeadlineMisses(),
+                rejectedTasks, reservedDensity);
+            System.out.println("Lateness:        " + metrics.getLateness());
+        }
+        System.out.printf("CPU Utilization: %.1f%% | Ready Queue Depth: avg %.2f, max %d\n",
+            metrics.getCpuUtilization() * 100, metrics.getAverageReadyQueueDepth(), metrics.getMaxReadyQueueDepth());
+        for (Device device : devices) {
+            System.out.printf("Device %d (%s, %s) | Requests: %d | Utilization: %.1f%% | Seek Distance: %d | Max Queue: %d\n",
+                device.getId(), device.getName(), device.getDiscipline().getDisplayName(), device.getCompletedCount(),
+                device.getUtilization(simulationTime) * 100, device.getSeekDistance(), device.getMaxQueueLength());
+        }
+        if (quantumController != null) {
+            System.out.println("Time Quantum: " + scheduler.getTimeQuantum() + " units after "
+                + quantumController.getRetuneCount() + " adjustments");
+        }
 
-        if (completedProcesses > 0) {
-            System.out.println("\nAverage Waiting Time: " + (totalWaitingTime / completedProcesses));
-            System.out.println("Average Turnaround Time: " + (totalTurnaroundTime / completedProcesses));
+        if (multiCoreDispatcher != null) {
+            System.out.println("\nPer-Core Statistics:");
+            System.out.println("--------------------------------------------");
+            for (Dispatcher core : multiCoreDispatcher.getCores()) {
+                System.out.printf("CPU %d | Busy Time: %d | Utilization: %.1f%% | Migrations: %d | Switches: %d process, %d thread (%d units)\n",
+                    core.getCoreId(), core.getBusyTime(), core.getUtilization() * 100, core.getMigrations(),
+                    core.getProcessSwitches(), core.getThreadSwitches(), core.getSwitchTime());
+            }
+            System.out.println("Total Migrations: " + multiCoreDispatcher.getTotalMigrations());
+        } else {
+            System.out.printf("\nContext Switches: %d process, %d thread (%d units lost)\n",
+                dispatcher.getProcessSwitches(), dispatcher.getThreadSwitches(), dispatcher.getSwitchTime());
         }
         
         System.out.println("=========================================\n");
     }
 
+    // measured from the process's arrival, not from time 0
+    private int turnaroundTimeOf(Process p) {
+        return p.getEndTime() - p.getArrivalTime();
+    }
+
+
+    /**
+     * Get average waiting time of the terminated processes (0 if none)
+     */
+    public double getAverageWaitingTime() {
+        return metrics.getAverageWaitingTime();
+    }
+
+    /**
+     * Get average turnaround time of the terminated processes (0 if none)
+     */
+    public double getAverageTurnaroundTime() {
+        return metrics.getAverageTurnaroundTime();
+    }
+
+    /**
+     * Get latency histograms and counters of this kernel
+     */
+    public KernelMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the number of processes waiting in ready queues
+     */
+    public int getReadyQueueSize() {
+        return multiCoreDispatcher != null ? multiCoreDispatcher.getReadyQueueSize() : scheduler.getReadyQueueSize();
+    }
+
+    /**
+     * Export the metrics on the platform MBean server as os.kernel:type=KernelMetrics,name=&lt;name&gt;,
+     * e.g. to watch a long run from jconsole
+     */
+    public synchronized void registerMetricsMBean(String name) throws JMException {
+        unregisterMetricsMBean();
+        ObjectName objectName = new ObjectName("os.kernel:type=KernelMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+        metricsName = objectName;
+    }
+
+    public synchronized void unregisterMetricsMBean() throws JMException {
+        if (metricsName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsName);
+            metricsName = null;
+        }
+    }
+
+    /**
+     * Get number of processes that have terminated (including released ones, not counting threads)
+     */
+    public long getCompletedProcessCount() {
+        return terminatedProcessCount() + releasedCount;
+    }
+
+    /**
+     * Get number of processes created on this kernel (including released ones, not counting threads)
+     */
+    public long getCreatedProcessCount() {
+        return processTable.size() - processTable.getThreadCount() + releasedCount;
+    }
+
     /**
      * Print execution trace
      */
     public void printExecutionTrace() {
         System.out.println("\n========== EXECUTION TRACE ==========");
-        List<String> logs = dispatcher.getDispatchLog();
+        List<String> logs = multiCoreDispatcher != null
+            ? multiCoreDispatcher.getDispatchLog()
+            : dispatcher.getDispatchLog();
         for (String log : logs) {
             System.out.println(log);
         }
@@ -155,10 +1018,64 @@ public class OSKernel {
     }
 
     /**
-     * Get all processes
+     * Get the multi-core dispatcher, null on a single-core kernel
+     */
+    public MultiCoreDispatcher getMultiCoreDispatcher() {
+        return multiCoreDispatcher;
+    }
+
+    /**
+     * Get execution history of every core
+     */
+    public List<Dispatcher.ProcessExecution> getExecutionHistory() {
+        return multiCoreDispatcher != null
+            ? multiCoreDispatcher.getExecutionHistory()
+            : dispatcher.getExecutionHistory();
+    }
+
+    /**
+     * What was on the CPU at 'time': at most one slice per core, in core order
+     */
+    public List<Dispatcher.ProcessExecution> getExecutionsAt(int time) {
+        if (multiCoreDispatcher != null) {
+            return multiCoreDispatcher.getExecutionsAt(time);
+        }
+        Dispatcher.ProcessExecution slice = dispatcher.getExecutionAt(time);
+        return slice != null ? List.of(slice) : List.of();
+    }
+
+    /**
+     * Slices of every core that overlap [fromTime, toTime), by start time (a Gantt window)
+     */
+    public List<Dispatcher.ProcessExecution> getExecutionsBetween(int fromTime, int toTime) {
+        return multiCoreDispatcher != null
+            ? multiCoreDispatcher.getExecutionsBetween(fromTime, toTime)
+            : dispatcher.getExecutionsBetween(fromTime, toTime);
+    }
+
+    /**
+     * Slices of one PID on every core, by start time
+     */
+    public List<Dispatcher.ProcessExecution> getExecutionsOf(int pid) {
+        return multiCoreDispatcher != null
+            ? multiCoreDispatcher.getExecutionsOf(pid)
+            : dispatcher.getExecutionsOf(pid);
+    }
+
+    /**
+     * Get all processes (views over the process table); thread rows are left out, see getProcessThreads
      */
     public List<Process> getProcesses() {
-        return new ArrayList<>(processes);
+        List<Process> processes = processTable.views();
+        processes.removeIf(Process::isThread);
+        return processes;
+    }
+
+    /**
+     * Get the column-wise table backing every process of this kernel
+     */
+    public ProcessTable getProcessTable() {
+        return processTable;
     }
 
     /**
@@ -168,10 +1085,253 @@ public class OSKernel {
         return processThreads.getOrDefault(parentPID, new ArrayList<>());
     }
 
+    // every core's dispatcher (just one on a single-core kernel)
+    private List<Dispatcher> allDispatchers() {
+        return multiCoreDispatcher != null ? multiCoreDispatcher.getCores() : List.of(dispatcher);
+    }
+
+    /**
+     * Render the dispatcher trace to a sink (e.g. System.out::println) from a background thread
+     */
+    public void startTraceDrainer(Consumer<String> sink) {
+        stopTraceDrainer();
+        traceDrainer = new TraceDrainer(allDispatchers(), sink, 20);
+        traceDrainer.start();
+    }
+
+    /**
+     * Stop the background trace drainer after rendering what is left
+     */
+    public void stopTraceDrainer() {
+        if (traceDrainer != null) {
+            traceDrainer.stop();
+            traceDrainer = null;
+        }
+    }
+
+    /**
+     * Serve the dispatcher trace live as server-sent events on http://127.0.0.1:port/events
+     * (port 0 = any free port), drained every 50 ms; returns the bound port.
+     * See EventStreamServer for the message format.
+     */
+    public synchronized int startEventStream(int port) throws IOException {
+        stopEventStream();
+        eventStream = new EventStreamServer(allDispatchers(), port, 50);
+        eventStream.start();
+        return eventStream.getPort();
+    }
+
+    /**
+     * Stop serving the live event stream and close every client's connection
+     */
+    public synchronized void stopEventStream() {
+        if (eventStream != null) {
+            eventStream.stop();
+            eventStream = null;
+        }
+    }
+
+    /**
+     * Write each core's execution history to history-core-N.bin in the given directory
+     */
+    public void recordHistoryTo(Path directory) throws IOException {
+        for (Dispatcher d : allDispatchers()) {
+            d.setHistoryFile(ExecutionHistoryFile.create(directory.resolve("history-core-" + d.getCoreId() + ".bin")));
+        }
+    }
+
+    // make history files readable (PID index + reasons) without closing them
+    private void flushHistory() {
+        for (Dispatcher d : allDispatchers()) {
+            ExecutionHistoryFile file = d.getHistoryFile();
+            if (file == null) continue;
+            try {
+                file.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot flush history file " + file.getPath(), e);
+            }
+        }
+    }
+
+    /**
+     * Close every history file; slices recorded afterwards are kept in memory again
+     */
+    public void closeHistory() throws IOException {
+        for (Dispatcher d : allDispatchers()) {
+            ExecutionHistoryFile file = d.getHistoryFile();
+            if (file == null) continue;
+            file.close();
+            d.setHistoryFile(null);
+        }
+    }
+
+    /**
+     * Turn dispatcher event tracing on or off for every core
+     */
+    public void setTracing(boolean tracing) {
+        for (Dispatcher d : allDispatchers()) {
+            d.setTracing(tracing);
+        }
+    }
+
+    /**
+     * Time lost per context switch on every core: to another process, or to another
+     * thread of the process that ran last (cheaper, same address space). Both default to 0.
+     */
+    public void setContextSwitchCosts(int processSwitchCost, int threadSwitchCost) {
+        for (Dispatcher d : allDispatchers()) {
+            d.setContextSwitchCosts(processSwitchCost, threadSwitchCost);
+        }
+    }
+
+    /**
+     * Change the time quantum of every run queue of this kernel
+     */
+    public void setTimeQuantum(int timeQuantum) {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.setTimeQuantum(timeQuantum);
+        } else {
+            scheduler.setTimeQuantum(timeQuantum);
+        }
+    }
+
+    /**
+     * Renice a process by PID: if it is waiting in a run queue it moves to where the new
+     * priority belongs (O(log n) for the priority queues); a running or blocked process
+     * gets the priority the next time it is queued. False if the PID is unknown.
+     */
+    public synchronized boolean changePriority(int pid, int priority) {
+        Process process = processTable.findByPID(pid);
+        if (process == null) return false;
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.changePriority(process, priority);
+        } else {
+            scheduler.changePriority(process, priority);
+        }
+        return true;
+    }
+
+    /**
+     * Ticket inflation / deflation by PID (LOTTERY, STRIDE): the process's share changes at
+     * once if it is waiting, else when it is next queued. False if the PID is unknown.
+     */
+    public synchronized boolean setTickets(int pid, int tickets) {
+        Process process = processTable.findByPID(pid);
+        if (process == null) return false;
+        changeTickets(process, tickets);
+        return true;
+    }
+
+    /**
+     * Move 'amount' tickets from one process to another (e.g. a client waiting on a server);
+     * the giver keeps at least one. False if either PID is unknown.
+     */
+    public synchronized boolean transferTickets(int fromPid, int toPid, int amount) {
+        Process from = processTable.findByPID(fromPid);
+        Process to = processTable.findByPID(toPid);
+        if (from == null || to == null) return false;
+        int available = Scheduler.getTickets(from);
+        if (amount < 1 || amount >= available) {
+            throw new IllegalArgumentException("Cannot transfer " + amount + " of " + available + " tickets");
+        }
+        changeTickets(from, available - amount);
+        changeTickets(to, (int) Math.min(Integer.MAX_VALUE, (long) Scheduler.getTickets(to) + amount));
+        return true;
+    }
+
+    private void changeTickets(Process process, int tickets) {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.changeTickets(process, tickets);
+        } else {
+            scheduler.changeTickets(process, tickets);
+        }
+    }
+
+    /**
+     * Seed of the LOTTERY draws for every run queue of this kernel
+     */
+    public void setLotterySeed(long seed) {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.setLotterySeed(seed);
+        } else {
+            scheduler.setLotterySeed(seed);
+        }
+    }
+
+    /**
+     * Let a controller retune the time quantum during runs (null keeps it fixed)
+     */
+    public void setQuantumController(QuantumController quantumController) {
+        this.quantumController = quantumController;
+    }
+
+    public QuantumController getQuantumController() {
+        return quantumController;
+    }
+
+    /**
+     * MLFQ tuning (boost interval, aging threshold) for every run queue of this kernel
+     */
+    public void setFeedbackTuning(int boostInterval, int agingThreshold) {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.setFeedbackTuning(boostInterval, agingThreshold);
+        } else {
+            scheduler.setFeedbackTuning(boostInterval, agingThreshold);
+        }
+    }
+
+    /**
+     * CFS tuning (target latency, minimum granularity) for every run queue of this kernel
+     */
+    public void setFairTuning(int targetLatency, int minGranularity) {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.setFairTuning(targetLatency, minGranularity);
+        } else {
+            scheduler.setFairTuning(targetLatency, minGranularity);
+        }
+    }
+
+    /**
+     * SRTF burst prediction (see Scheduler.setBurstPrediction) for every run queue of this kernel
+     */
+    public void setBurstPrediction(double alpha, int initialPrediction) {
+        if (multiCoreDispatcher != null) {
+            multiCoreDispatcher.setBurstPrediction(alpha, initialPrediction);
+        } else {
+            scheduler.setBurstPrediction(alpha, initialPrediction);
+        }
+    }
+
+    /**
+     * Choose between tick-by-tick and event-driven execution
+     */
+    public void setSimulationMode(SimulationMode simulationMode) {
+        this.simulationMode = simulationMode;
+    }
+
+    public SimulationMode getSimulationMode() {
+        return simulationMode;
+    }
+
+    /**
+     * Turn off runSimulation's console output (batch runs, benchmarks)
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Get simulated time elapsed so far
+     */
+    public int getSimulationTime() {
+        return simulationTime;
+    }
+
     /**
      * Stop simulation
      */
     public void stopSimulation() {
         simulationRunning = false;
+        stopRequested = true;
     }
 }
@@ -0,0 +1,182 @@
+package kernel;
+
+import scheduling.Scheduler;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Batch runner: one independent OSKernel per (algorithm, time quantum, workload)
+ * combination, all run in parallel on a fork-join pool.
+ * Kernels share no state (PIDs and thread IDs are per kernel), so every run is
+ * deterministic and results come back in grid order whatever the thread count.
+ */
+public class ParameterSweep {
+
+    // Averages of one kernel run
+    public static class Result {
+        public final Scheduler.SchedulingAlgorithm algorithm;
+        public final int timeQuantum;
+        public final String workload;
+        public final long processCount;
+        public final long completedCount;
+        public final double averageWaitingTime;
+        public final double averageTurnaroundTime;
+        public final int simulationTime;
+
+        public Result(Scheduler.SchedulingAlgorithm algorithm, int timeQuantum, String workload,
+                      long processCount, long completedCount, double averageWaitingTime,
+                      double averageTurnaroundTime, int simulationTime) {
+            this.algorithm = algorithm;
+            this.timeQuantum = timeQuantum;
+            this.workload = workload;
+            this.processCount = processCount;
+            this.completedCount = completedCount;
+            this.averageWaitingTime = averageWaitingTime;
+            this.averageTurnaroundTime = averageTurnaroundTime;
+            this.simulationTime = simulationTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s, Quantum: %d, Workload: %s, Done: %d/%d, Avg Waiting: %.2f, Avg Turnaround: %.2f]",
+                algorithm, timeQuantum, workload, completedCount, processCount, averageWaitingTime, averageTurnaroundTime);
+        }
+    }
+
+    private final List<Scheduler.SchedulingAlgorithm> algorithms;
+    private final List<Integer> timeQuanta;
+    private final List<Workload> workloads;
+    private int coreCount;
+    private int maxTime;
+    private OSKernel.SimulationMode simulationMode;
+    private int parallelism;
+    private int processSwitchCost;
+    private int threadSwitchCost;
+
+    public ParameterSweep(List<Scheduler.SchedulingAlgorithm> algorithms, List<Integer> timeQuanta,
+                          List<Workload> workloads) {
+        this.algorithms = new ArrayList<>(algorithms);
+        this.timeQuanta = new ArrayList<>(timeQuanta);
+        this.workloads = new ArrayList<>(workloads);
+        this.coreCount = 1;
+        this.maxTime = Integer.MAX_VALUE;
+        this.simulationMode = OSKernel.SimulationMode.EVENT_DRIVEN;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.processSwitchCost = 0;
+        this.threadSwitchCost = 0;
+    }
+
+    public void setCoreCount(int coreCount) {
+        this.coreCount = coreCount;
+    }
+
+    public void setMaxTime(int maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    public void setSimulationMode(OSKernel.SimulationMode simulationMode) {
+        this.simulationMode = simulationMode;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    // context-switch costs for every run (see OSKernel.setContextSwitchCosts)
+    public void setContextSwitchCosts(int processSwitchCost, int threadSwitchCost) {
+        this.processSwitchCost = processSwitchCost;
+        this.threadSwitchCost = threadSwitchCost;
+    }
+
+    /**
+     * Number of kernels one run() starts
+     */
+    public int getRunCount() {
+        return algorithms.size() * timeQuanta.size() * workloads.size();
+    }
+
+    /**
+     * Run every combination; results are ordered by algorithm, then quantum, then workload
+     */
+    public List<Result> run() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<Result>> tasks = new ArrayList<>(getRunCount());
+            for (Scheduler.SchedulingAlgorithm algorithm : algorithms) {
+                for (int timeQuantum : timeQuanta) {
+                    for (Workload workload : workloads) {
+                        tasks.add(pool.submit(() -> runOne(algorithm, timeQuantum, workload)));
+                    }
+                }
+            }
+            List<Result> results = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<Result> task : tasks) {
+                results.add(task.join());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Run one configuration on a fresh, silent kernel
+     */
+    public Result runOne(Scheduler.SchedulingAlgorithm algorithm, int timeQuantum, Workload workload) {
+        OSKernel kernel = new OSKernel(algorithm, timeQuantum, coreCount);
+        kernel.setVerbose(false);
+        kernel.setTracing(false);
+        kernel.setSimulationMode(simulationMode);
+        kernel.setRecycleTerminated(true); // only the averages are needed
+        kernel.setContextSwitchCosts(processSwitchCost, threadSwitchCost);
+        workload.populate(kernel);
+        kernel.runSimulation(maxTime);
+
+        return new Result(algorithm, timeQuantum, workload.getName(),
+            kernel.getCreatedProcessCount(), kernel.getCompletedProcessCount(),
+            kernel.getAverageWaitingTime(), kernel.getAverageTurnaroundTime(),
+            kernel.getSimulationTime());
+    }
+
+    /**
+     * Print results as one table
+     */
+    public static void printTable(List<Result> results) {
+        System.out.println("\n========== PARAMETER SWEEP ==========");
+        System.out.printf("%-34s %8s %-16s %11s %12s %15s %10s\n",
+            "Algorithm", "Quantum", "Workload", "Completed", "Avg Waiting", "Avg Turnaround", "Sim Time");
+        System.out.println("--------------------------------------------------------------------------------------------------");
+        for (Result r : results) {
+            System.out.printf("%-34s %8d %-16s %5d/%-5d %12.2f %15.2f %10d\n",
+                r.algorithm.getDisplayName(), r.timeQuantum, r.workload, r.completedCount, r.processCount,
+                r.averageWaitingTime, r.averageTurnaroundTime, r.simulationTime);
+        }
+        System.out.println("=====================================\n");
+    }
+
+    // Example sweep: every algorithm, quanta 1..8, four seeded workloads
+    public static void main(String[] args) {
+        List<Integer> quanta = new ArrayList<>();
+        for (int q = 1; q <= 8; q++) {
+            quanta.add(q);
+        }
+        WorkloadGenerator heavyTail = new WorkloadGenerator("heavy-tail", 4);
+        heavyTail.setPoissonArrivals(5.0);
+        heavyTail.setParetoBursts(4.0, 1.5);
+        heavyTail.setArrivalEndTime(20_000);
+        List<Workload> workloads = List.of(
+            Workload.random("short-jobs", 1, 200, 10, 5, 100),
+            Workload.random("long-jobs", 2, 200, 10, 50, 100),
+            Workload.random("burst-at-0", 3, 200, 10, 20, 0),
+            heavyTail);
+
+        ParameterSweep sweep = new ParameterSweep(Arrays.asList(Scheduler.SchedulingAlgorithm.values()), quanta, workloads);
+        long started = System.nanoTime();
+        List<Result> results = sweep.run();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        printTable(results);
+        System.out.println(sweep.getRunCount() + " kernels in " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,107 @@
+package kernel;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Retunes the time quantum of a running kernel from what it has observed so far.
+ * Every process needs one dispatch at least; a quantum shorter than its burst adds one
+ * context switch per extra slice. With the observed burst histogram and the observed
+ * average cost of a switch, the controller picks the smallest quantum whose extra
+ * switching stays within maxSwitchOverhead of the useful CPU time. Larger quanta hardly
+ * raise throughput any more, but they make waiting processes wait longer.
+ * With free switches this is the minimum quantum; the costlier a switch, the longer the quantum.
+ */
+public class QuantumController {
+    private final int interval;
+    private double maxSwitchOverhead;
+    private int minQuantum;
+    private int maxQuantum;
+    private int nextRetuneTime;
+    private int retuneCount;
+
+    // retune every 'interval' time units
+    public QuantumController(int interval) {
+        this.interval = Math.max(1, interval);
+        this.maxSwitchOverhead = 0.05;
+        this.minQuantum = 1;
+        this.maxQuantum = 1_000;
+        this.nextRetuneTime = this.interval;
+        this.retuneCount = 0;
+    }
+
+    // extra switching allowed, as a fraction of useful CPU time (default 5%)
+    public void setMaxSwitchOverhead(double maxSwitchOverhead) {
+        this.maxSwitchOverhead = Math.max(0.0, maxSwitchOverhead);
+    }
+
+    public void setQuantumRange(int minQuantum, int maxQuantum) {
+        this.minQuantum = Math.max(1, minQuantum);
+        this.maxQuantum = Math.max(this.minQuantum, maxQuantum);
+    }
+
+    public int getNextRetuneTime() {
+        return nextRetuneTime;
+    }
+
+    public int getRetuneCount() {
+        return retuneCount;
+    }
+
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(interval);
+        out.writeDouble(maxSwitchOverhead);
+        out.writeInt(minQuantum);
+        out.writeInt(maxQuantum);
+        out.writeInt(nextRetuneTime);
+        out.writeInt(retuneCount);
+    }
+
+    static QuantumController readState(DataInput in) throws IOException {
+        QuantumController controller = new QuantumController(in.readInt());
+        controller.maxSwitchOverhead = in.readDouble();
+        controller.minQuantum = in.readInt();
+        controller.maxQuantum = in.readInt();
+        controller.nextRetuneTime = in.readInt();
+        controller.retuneCount = in.readInt();
+        return controller;
+    }
+
+    // Called by the kernel once simulation time reaches getNextRetuneTime()
+    void retune(OSKernel kernel) {
+        int now = kernel.getSimulationTime();
+        while (nextRetuneTime <= now) {
+            nextRetuneTime += interval;
+        }
+        KernelMetrics metrics = kernel.getMetrics();
+        LatencyHistogram bursts = metrics.getBurstTimes();
+        if (bursts.getCount() == 0) return; // nothing observed yet
+
+        long switches = metrics.getContextSwitches();
+        double switchCost = switches == 0 ? 0.0 : (double) metrics.getContextSwitchTime() / switches;
+        int quantum = chooseQuantum(bursts, switchCost);
+        if (quantum != kernel.getScheduler().getTimeQuantum()) {
+            kernel.setTimeQuantum(quantum);
+            retuneCount++;
+        }
+    }
+
+    // smallest quantum in range within the overhead budget; slices only drop as the quantum grows
+    int chooseQuantum(LatencyHistogram bursts, double switchCost) {
+        double budget = maxSwitchOverhead * bursts.getSum();
+        long processes = bursts.getCount();
+        int low = minQuantum;
+        int high = maxQuantum;
+        while (low < high) {
+            int mid = low + (high - low) / 2;
+            double extraSwitchTime = (bursts.getSliceCount(mid) - processes) * switchCost;
+            if (extraSwitchTime <= budget) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,67 @@
+package kernel;
+
+import process.Process;
+
+// Event in the discrete-event simulation: something that happens at a point in time
+public class SimulationEvent implements Comparable<SimulationEvent> {
+    public enum Type {
+        ARRIVAL("Arrival"),                 // Process enters the ready queue
+        QUANTUM_EXPIRY("Quantum Expiry"),   // Running process used up its time slice
+        COMPLETION("Completion"),           // Running process finished its burst
+        IO_COMPLETION("I/O Completion");    // A device finished the request it was serving
+
+        private final String displayName;
+
+        Type(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Type type;
+    private final int time;
+    private final Process process;
+    private final long sequence; // Keeps events at the same time in insertion order
+
+    public SimulationEvent(Type type, int time, Process process, long sequence) {
+        this.type = type;
+        this.time = time;
+        this.process = process;
+        this.sequence = sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getTime() {
+        return time;
+    }
+
+    public Process getProcess() {
+        return process;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean isCpuEvent() {
+        return type == Type.QUANTUM_EXPIRY || type == Type.COMPLETION;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        int byTime = Integer.compare(time, other.time);
+        return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[T=%d %s: %s]", time, type.getDisplayName(),
+                process != null ? process.getProcessName() : "-");
+    }
+}
@@ -0,0 +1,40 @@
+package kernel;
+
+import java.util.Random;
+
+/**
+ * A set of processes to run on a fresh kernel.
+ * populate() must create the same processes every time it is called, so that sweep
+ * runs of different configurations see identical input.
+ */
+public interface Workload {
+
+    String getName();
+
+    // create this workload's processes on the kernel
+    void populate(OSKernel kernel);
+
+    /**
+     * Uniformly random processes from a fixed seed: priority 1..maxPriority,
+     * burst 1..maxBurst, arrival 0..maxArrival
+     */
+    static Workload random(String name, long seed, int processCount, int maxPriority, int maxBurst, int maxArrival) {
+        return new Workload() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void populate(OSKernel kernel) {
+                Random random = new Random(seed);
+                for (int i = 0; i < processCount; i++) {
+                    int priority = 1 + random.nextInt(maxPriority);
+                    int burst = 1 + random.nextInt(maxBurst);
+                    int arrival = maxArrival > 0 ? random.nextInt(maxArrival + 1) : 0;
+                    kernel.createProcess(name + "-" + i, priority, burst, arrival);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,244 @@
+package kernel;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic workload for open-system runs.
+ * Arrivals are generated lazily, one at a time, as the kernel reaches them
+ * (see OSKernel.streamArrivals), so a run can last as long as wanted without the
+ * workload growing in memory. The same seed always yields the same arrivals.
+ */
+public class WorkloadGenerator implements Workload {
+
+    public enum ArrivalPattern {
+        POISSON("Poisson (exponential gaps)"),
+        BURSTY("Bursty (batches of simultaneous arrivals)");
+
+        private final String displayName;
+
+        ArrivalPattern(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    public enum BurstDistribution {
+        EXPONENTIAL("Exponential"),
+        PARETO("Pareto (heavy-tailed)");
+
+        private final String displayName;
+
+        BurstDistribution(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final String name;
+    private final long seed;
+    private ArrivalPattern arrivalPattern;
+    private double meanInterarrivalTime;
+    private double meanBatchSize;        // BURSTY only
+    private BurstDistribution burstDistribution;
+    private double meanBurstTime;
+    private double paretoShape;          // PARETO only, must be > 1 for a finite mean
+    private int maxBurstTime;
+    private int[] priorities;
+    private double[] cumulativeWeights;
+    private long processLimit;
+    private int arrivalEndTime;
+
+    public WorkloadGenerator(String name, long seed) {
+        this.name = name;
+        this.seed = seed;
+        this.arrivalPattern = ArrivalPattern.POISSON;
+        this.meanInterarrivalTime = 5.0;
+        this.meanBatchSize = 8.0;
+        this.burstDistribution = BurstDistribution.EXPONENTIAL;
+        this.meanBurstTime = 4.0;
+        this.paretoShape = 1.5;
+        this.maxBurstTime = 10_000;
+        setPriorityMix(new int[] {1, 5, 10}, new double[] {1, 1, 1});
+        this.processLimit = Long.MAX_VALUE;
+        this.arrivalEndTime = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Poisson arrivals with the given mean gap between processes
+     */
+    public void setPoissonArrivals(double meanInterarrivalTime) {
+        this.arrivalPattern = ArrivalPattern.POISSON;
+        this.meanInterarrivalTime = meanInterarrivalTime;
+    }
+
+    /**
+     * Batches of simultaneous arrivals (geometric size with the given mean) separated by
+     * exponential gaps, with the same long-run rate as Poisson arrivals of meanInterarrivalTime
+     */
+    public void setBurstyArrivals(double meanInterarrivalTime, double meanBatchSize) {
+        this.arrivalPattern = ArrivalPattern.BURSTY;
+        this.meanInterarrivalTime = meanInterarrivalTime;
+        this.meanBatchSize = Math.max(1.0, meanBatchSize);
+    }
+
+    public void setExponentialBursts(double meanBurstTime) {
+        this.burstDistribution = BurstDistribution.EXPONENTIAL;
+        this.meanBurstTime = meanBurstTime;
+    }
+
+    /**
+     * Heavy-tailed bursts: Pareto with the given mean and shape (smaller shape, heavier tail)
+     */
+    public void setParetoBursts(double meanBurstTime, double shape) {
+        if (shape <= 1.0) {
+            throw new IllegalArgumentException("Pareto shape must be > 1, got " + shape);
+        }
+        this.burstDistribution = BurstDistribution.PARETO;
+        this.meanBurstTime = meanBurstTime;
+        this.paretoShape = shape;
+    }
+
+    // bursts longer than this are cut (keeps a single huge job from stalling a run)
+    public void setMaxBurstTime(int maxBurstTime) {
+        this.maxBurstTime = Math.max(1, maxBurstTime);
+    }
+
+    /**
+     * Priorities to draw from, with relative weights
+     */
+    public void setPriorityMix(int[] priorities, double[] weights) {
+        if (priorities.length == 0 || priorities.length != weights.length) {
+            throw new IllegalArgumentException("Need one weight per priority");
+        }
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= sum;
+        }
+        this.priorities = priorities.clone();
+        this.cumulativeWeights = cumulative;
+    }
+
+    // stop after this many processes
+    public void setProcessLimit(long processLimit) {
+        this.processLimit = processLimit;
+    }
+
+    // no arrivals at or after this time
+    public void setArrivalEndTime(int arrivalEndTime) {
+        this.arrivalEndTime = arrivalEndTime;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void populate(OSKernel kernel) {
+        kernel.streamArrivals(newStream());
+    }
+
+    /**
+     * A fresh cursor over this workload's arrivals, starting from the seed
+     */
+    public ArrivalStream newStream() {
+        return new Stream();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s, Arrivals: %s, Mean Gap: %.2f, Bursts: %s, Mean Burst: %.2f, Priorities: %s]",
+            name, arrivalPattern.getDisplayName(), meanInterarrivalTime, burstDistribution.getDisplayName(),
+            meanBurstTime, Arrays.toString(priorities));
+    }
+
+    // Generator state of one run: a few fields, whatever the number of arrivals
+    private class Stream implements ArrivalStream {
+        private final SplittableRandom random = new SplittableRandom(seed);
+        private double clock = 0;
+        private long batchLeft = 0;
+        private long generated = 0;
+        private int arrivalTime;
+        private int priority;
+        private int burstTime;
+
+        @Override
+        public boolean advance() {
+            if (generated >= processLimit) return false;
+            if (arrivalPattern == ArrivalPattern.BURSTY) {
+                if (batchLeft == 0) {
+                    clock += exponential(meanInterarrivalTime * meanBatchSize);
+                    batchLeft = geometric(meanBatchSize);
+                }
+                batchLeft--;
+            } else {
+                clock += exponential(meanInterarrivalTime);
+            }
+            if (clock >= arrivalEndTime) return false;
+
+            arrivalTime = (int) clock;
+            priority = drawPriority();
+            burstTime = drawBurst();
+            generated++;
+            return true;
+        }
+
+        private double exponential(double mean) {
+            return -mean * Math.log(1.0 - random.nextDouble());
+        }
+
+        // number of trials until the first success, mean 'mean' (>= 1)
+        private long geometric(double mean) {
+            if (mean <= 1.0) return 1;
+            double p = 1.0 / mean;
+            return 1 + (long) (Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+        }
+
+        private int drawPriority() {
+            double u = random.nextDouble();
+            for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+                if (u < cumulativeWeights[i]) return priorities[i];
+            }
+            return priorities[priorities.length - 1];
+        }
+
+        private int drawBurst() {
+            double burst;
+            if (burstDistribution == BurstDistribution.PARETO) {
+                // scale chosen so the mean is meanBurstTime
+                double scale = meanBurstTime * (paretoShape - 1) / paretoShape;
+                burst = scale / Math.pow(1.0 - random.nextDouble(), 1.0 / paretoShape);
+            } else {
+                burst = exponential(meanBurstTime);
+            }
+            return (int) Math.max(1, Math.min(maxBurstTime, Math.round(burst)));
+        }
+
+        @Override
+        public int getArrivalTime() {
+            return arrivalTime;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public int getBurstTime() {
+            return burstTime;
+        }
+    }
+}
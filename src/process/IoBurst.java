@@ -0,0 +1,19 @@
+package process;
+
+// One I/O burst of a process: a request to a device, made between two CPU bursts
+public class IoBurst {
+    public final int device;   // device ID (see OSKernel.addDevice)
+    public final int track;    // position on the device, used by elevator scheduling and seeks
+    public final int length;   // transfer time once the device serves the request
+
+    public IoBurst(int device, int track, int length) {
+        this.device = device;
+        this.track = track;
+        this.length = length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Device: %d, Track: %d, Length: %d]", device, track, length);
+    }
+}
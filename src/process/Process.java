@@ -1,120 +1,296 @@
 package process;
 
 // Process: unique ID, priority, state, burst time
+// Thin view over one row of a ProcessTable; all fields live in the table's columns
 public class Process {
-    private static int nextPID = 1000;
-    private final int PID;
-    private final String processName;
-    private int priority;           // Higher number = higher priority (1-10)
-    private ProcessState state;
-    private int totalBurstTime;     // Total time needed for execution
-    private int remainingBurstTime; // Remaining execution time
-    private int startTime;
-    private int endTime;
-    private int waitingTime;
-    private int turnaroundTime;
-    private long creationTime;
-
-    // Create new process
+    private static int nextPID = ProcessTable.FIRST_PID; // only for standalone processes
+    private final ProcessTable table;
+    private final int slot;
+
+    // Create new process (in a table of its own)
     public Process(String processName, int priority, int burstTime) {
-        this.PID = nextPID++;
-        this.processName = processName;
-        this.priority = priority;
-        this.totalBurstTime = burstTime;
-        this.remainingBurstTime = burstTime;
-        this.state = ProcessState.NEW;
-        this.startTime = -1; // -1 = unset, avoid overwriting time 0
-        this.endTime = -1;
-        this.waitingTime = 0;
-        this.turnaroundTime = 0;
-        this.creationTime = System.currentTimeMillis();
+        this.table = new ProcessTable(1, allocatePID());
+        this.slot = table.addRow(processName, priority, burstTime);
+    }
+
+    // View over an existing row
+    Process(ProcessTable table, int slot) {
+        this.table = table;
+        this.slot = slot;
+    }
+
+    static synchronized int allocatePID() {
+        return nextPID++;
     }
 
     // getters/setters
     public int getPID() {
-        return PID;
+        return table.pid(slot);
     }
 
     public String getProcessName() {
-        return processName;
+        return table.name(slot);
     }
 
     public int getPriority() {
-        return priority;
+        return table.priority(slot);
     }
 
     public void setPriority(int priority) {
-        this.priority = priority;
+        table.setPriority(slot, priority);
     }
 
     public ProcessState getState() {
-        return state;
+        return table.state(slot);
     }
 
     public void setState(ProcessState state) {
-        this.state = state;
+        table.setState(slot, state);
     }
 
     public int getTotalBurstTime() {
-        return totalBurstTime;
+        return table.totalBurst(slot);
     }
 
     public int getRemainingBurstTime() {
-        return remainingBurstTime;
+        return table.remainingBurst(slot);
     }
 
     public void setRemainingBurstTime(int remaining) {
-        this.remainingBurstTime = Math.max(0, remaining);
+        table.setRemainingBurst(slot, Math.max(0, remaining));
     }
 
     public void reduceRemainingTime(int amount) {
-        this.remainingBurstTime = Math.max(0, remainingBurstTime - amount);
+        table.setRemainingBurst(slot, Math.max(0, table.remainingBurst(slot) - amount));
     }
 
     // check if done
     public boolean isComplete() {
-        return remainingBurstTime <= 0;
+        return table.remainingBurst(slot) <= 0;
+    }
+
+    public int getArrivalTime() {
+        return table.arrivalTime(slot);
+    }
+
+    public void setArrivalTime(int arrivalTime) {
+        table.setArrivalTime(slot, arrivalTime);
     }
 
     public int getStartTime() {
-        return startTime;
+        return table.startTime(slot);
     }
 
     public void setStartTime(int startTime) {
-        this.startTime = startTime;
+        table.setStartTime(slot, startTime);
     }
 
     public int getEndTime() {
-        return endTime;
+        return table.endTime(slot);
     }
 
     public void setEndTime(int endTime) {
-        this.endTime = endTime;
+        table.setEndTime(slot, endTime);
     }
 
     public int getWaitingTime() {
-        return waitingTime;
+        return table.waitingTime(slot);
     }
 
     public void setWaitingTime(int waitingTime) {
-        this.waitingTime = waitingTime;
+        table.setWaitingTime(slot, waitingTime);
     }
 
     public int getTurnaroundTime() {
-        return turnaroundTime;
+        return table.turnaroundTime(slot);
     }
 
     public void setTurnaroundTime(int turnaroundTime) {
-        this.turnaroundTime = turnaroundTime;
+        table.setTurnaroundTime(slot, turnaroundTime);
+    }
+
+    // Feedback-queue level used by the MLFQ scheduler (0 = top)
+    public int getQueueLevel() {
+        return table.queueLevel(slot);
+    }
+
+    public void setQueueLevel(int level) {
+        table.setQueueLevel(slot, level);
+    }
+
+    // Weighted virtual runtime used by the CFS scheduler (the pass under stride scheduling)
+    public long getVirtualRuntime() {
+        return table.virtualRuntime(slot);
+    }
+
+    public void setVirtualRuntime(long vruntime) {
+        table.setVirtualRuntime(slot, vruntime);
+    }
+
+    // Time slice granted by the CFS scheduler at the last dispatch
+    public int getTimeSlice() {
+        return table.timeSlice(slot);
+    }
+
+    public void setTimeSlice(int slice) {
+        table.setTimeSlice(slot, slice);
     }
 
+    // Absolute deadline of a real-time job (arrival + relative deadline), ProcessTable.NO_DEADLINE if none
+    public int getDeadline() {
+        return table.deadline(slot);
+    }
+
+    public boolean hasDeadline() {
+        return table.deadline(slot) != ProcessTable.NO_DEADLINE;
+    }
+
+    // Real-time task period, 0 if none
+    public int getPeriod() {
+        return table.period(slot);
+    }
+
+    // Worst-case execution time of a real-time job, 0 if none
+    public int getWcet() {
+        return table.wcet(slot);
+    }
+
+    // Index in the heap (or lottery tree) of the ready queue holding the process; may be stale once it left
+    public int getHeapPosition() {
+        return table.heapPosition(slot);
+    }
+
+    public void setHeapPosition(int position) {
+        table.setHeapPosition(slot, position);
+    }
+
+    // CPU time left in the current CPU burst (the whole remaining burst for a CPU-only process)
+    public int getBurstRemainingTime() {
+        return table.burstRemaining(slot);
+    }
+
+    // Length of the current CPU burst (the whole burst for a CPU-only process)
+    public int getCpuBurstLength() {
+        return table.cpuBurst(slot);
+    }
+
+    // Exponentially averaged CPU burst length predicted by the SRTF scheduler, 0 before the first estimate
+    public int getPredictedBurst() {
+        return table.predictedBurst(slot);
+    }
+
+    public void setPredictedBurst(int burst) {
+        table.setPredictedBurst(slot, burst);
+    }
+
+    // Lottery / stride tickets set by a transfer or inflation, 0 while they follow the priority
+    public int getTickets() {
+        return table.tickets(slot);
+    }
+
+    public void setTickets(int count) {
+        table.setTickets(slot, count);
+    }
+
+    // Current CPU burst is used up and an I/O burst comes next
+    public boolean needsIo() {
+        return table.needsIo(slot);
+    }
+
+    public int getIoBurstCount() {
+        return table.ioBurstCount(slot);
+    }
+
+    // Device, track and length of the next I/O burst (only while needsIo())
+    public int getIoDevice() {
+        return table.nextIo(slot, 0);
+    }
+
+    public int getIoTrack() {
+        return table.nextIo(slot, 1);
+    }
+
+    public int getIoLength() {
+        return table.nextIo(slot, 2);
+    }
+
+    // Time spent blocked on devices so far (queued or being served)
+    public int getIoTime() {
+        return table.ioTime(slot);
+    }
+
+    public void addIoTime(int time) {
+        table.addIoTime(slot, time);
+    }
+
+    // I/O burst finished: move on to the next CPU burst
+    public void completeIo() {
+        table.completeIo(slot);
+    }
+
+    // the same row as a thread, null for a process row
+    public Thread asThread() {
+        return isThread() ? new Thread(table, slot) : null;
+    }
+
+    // Thread rows are scheduled like processes but belong to a parent process
+    public boolean isThread() {
+        return table.parentPid(slot) != ProcessTable.NO_PARENT;
+    }
+
+    // PID of the owning process, ProcessTable.NO_PARENT for a process
+    public int getParentPID() {
+        return table.parentPid(slot);
+    }
+
+    public int getLiveThreadCount() {
+        return table.liveThreads(slot);
+    }
+
+    // Finished own burst: block until the live threads finish. False if it can terminate now
+    public boolean waitForThreads() {
+        return table.waitForThreads(slot);
+    }
+
+    // Finished thread: returns its parent if the parent was only waiting for this thread, else null
+    public Process finishThread() {
+        if (!isThread()) return null;
+        int parentSlot = table.slotOf(getParentPID());
+        if (parentSlot < 0) return null;
+        return table.threadFinished(parentSlot) ? new Process(table, parentSlot) : null;
+    }
+
+    // Wall-clock time the backing table was created (not tracked per process)
     public long getCreationTime() {
-        return creationTime;
+        return table.getCreationTime();
+    }
+
+    public ProcessTable getTable() {
+        return table;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    // Two views are the same process when they point at the same row
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Process)) return false;
+        Process other = (Process) o;
+        return table == other.table && slot == other.slot;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(table) * 31 + slot;
     }
 
     @Override
     public String toString() {
         return String.format("[PID: %d, Name: %s, Priority: %d, State: %s, Remaining: %d/%d]",
-                PID, processName, priority, state.getDisplayName(), remainingBurstTime, totalBurstTime);
+                getPID(), getProcessName(), getPriority(), getState().getDisplayName(),
+                getRemainingBurstTime(), getTotalBurstTime());
     }
 }
@@ -0,0 +1,830 @@
+package process;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntFunction;
+
+/**
+ * Compact process table: one primitive column per process field.
+ * A Process is only a thin view (table + row) over this storage, created on demand,
+ * so millions of processes cost a few int columns instead of millions of objects.
+ * Rows are appended under the table's monitor. The table also keeps, for every ProcessState,
+ * a counter and an index set of the rows in that state, updated on each state transition, so
+ * state queries never scan the table. That index is striped by slot, each stripe under its own
+ * monitor with atomic counts, so rows change state from any thread without contending, and a
+ * change to the state a row is already in takes no lock at all.
+ * Every other column of a row has one writer at a time, whoever holds the process (the kernel,
+ * a ready queue or a core). Those writes are not ordered against an append that grows the
+ * columns, so a table whose rows are updated from several threads while rows are added must be
+ * created with the capacity for all of them.
+ * A row may alternate CPU and I/O bursts; its remaining burst is then the CPU time left over
+ * all of its CPU bursts, and the process blocks for I/O each time a CPU burst runs out.
+ * Threads are rows too: they carry their parent's PID and are scheduled like processes,
+ * and a process with live threads only terminates after its last thread.
+ * Terminated rows can be released and their slots reused by later processes, which keeps
+ * the table at a constant size under a steady stream of arrivals; views of a released
+ * row must not be used afterwards.
+ */
+public class ProcessTable {
+    private static final int DEFAULT_CAPACITY = 16;
+    public static final int FIRST_PID = 1000;
+    private static final ProcessState[] STATES = ProcessState.values();
+    private static final byte RELEASED = -1; // state of a free slot
+    private static final int STRIPE_BITS = 4;
+    private static final int STRIPE_MASK = (1 << STRIPE_BITS) - 1;
+    private static final int NO_PID = Integer.MIN_VALUE;
+    public static final int NO_PARENT = -1;
+    public static final int NO_DEADLINE = Integer.MAX_VALUE; // absolute deadline of a row without one
+
+    private int size;                      // slots in use or free, free slots are reused first
+    private int[] pids;
+    private int[] priorities;
+    private int[] totalBurst;
+    private int[] remainingBurst;
+    private int[] arrivalTimes;
+    private int[] startTimes;
+    private int[] endTimes;
+    private int[] waitingTimes;
+    private int[] turnaroundTimes;
+    private byte[] queueLevels;            // feedback-queue level (MLFQ), 0 = top
+    private long[] virtualRuntimes;        // weighted CPU time (CFS), pass (stride)
+    private int[] timeSlices;              // slice granted at the last dispatch (CFS)
+    private int[] heapPositions;           // index in an indexed ready queue (heap, lottery tree); not saved, queues rebuild it
+    private int[] parentPids;              // owning process of a thread row, NO_PARENT for processes
+    private int[] liveThreads;             // threads of a process row that have not terminated
+    private int[][] burstPlans;            // null = one CPU burst, else {cpu0, device0, track0, length0, cpu1, ..., cpuN}
+    private int[] iosDone;                 // I/O bursts of the plan completed so far
+    private int[] cpuAfterBursts;          // CPU time of the plan after the current CPU burst
+    private int[] ioTimes;                 // time spent blocked on devices (queued or served)
+    private int[] deadlines;               // relative to the arrival (release), 0 = no deadline
+    private int[] periods;                 // real-time task period, 0 = none / single job
+    private int[] wcets;                   // real-time worst-case execution time, 0 = none
+    private int[] predictedBursts;         // exponential average of past CPU bursts (SRTF), 0 = none yet
+    private int[] tickets;                 // lottery / stride tickets, 0 = derived from the priority
+    private final StateStripe[] stripes;   // state index of the rows, by slot & STRIPE_MASK
+    private String[] names;                // null = unnamed, built by nameLoader on demand
+    private IntFunction<String> nameLoader; // PID -> name for unnamed rows
+    private int nextPID;                   // PIDs are per table, so separate kernels never share a counter
+    private int[] freeSlots;               // released slots, reused before the table grows
+    private int freeCount;
+    private int[] pidIndexKeys;            // PID -> slot, built once slots are reused (rows no longer sorted)
+    private int[] pidIndexSlots;
+    private final long creationTime;
+
+    public ProcessTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ProcessTable(int capacity) {
+        this(capacity, FIRST_PID);
+    }
+
+    // table whose first process gets the given PID
+    public ProcessTable(int capacity, int firstPID) {
+        capacity = Math.max(1, capacity);
+        this.size = 0;
+        this.nextPID = firstPID;
+        this.pids = new int[capacity];
+        this.priorities = new int[capacity];
+        this.totalBurst = new int[capacity];
+        this.remainingBurst = new int[capacity];
+        this.arrivalTimes = new int[capacity];
+        this.startTimes = new int[capacity];
+        this.endTimes = new int[capacity];
+        this.waitingTimes = new int[capacity];
+        this.turnaroundTimes = new int[capacity];
+        this.queueLevels = new byte[capacity];
+        this.virtualRuntimes = new long[capacity];
+        this.timeSlices = new int[capacity];
+        this.heapPositions = new int[capacity];
+        this.parentPids = new int[capacity];
+        this.liveThreads = new int[capacity];
+        this.burstPlans = new int[capacity][];
+        this.iosDone = new int[capacity];
+        this.cpuAfterBursts = new int[capacity];
+        this.ioTimes = new int[capacity];
+        this.deadlines = new int[capacity];
+        this.periods = new int[capacity];
+        this.wcets = new int[capacity];
+        this.predictedBursts = new int[capacity];
+        this.tickets = new int[capacity];
+        this.stripes = new StateStripe[STRIPE_MASK + 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new StateStripe((capacity + STRIPE_MASK) >>> STRIPE_BITS);
+        }
+        this.names = new String[capacity];
+        this.nameLoader = null;
+        this.freeSlots = new int[DEFAULT_CAPACITY];
+        this.freeCount = 0;
+        this.pidIndexKeys = null;
+        this.pidIndexSlots = null;
+        this.creationTime = System.currentTimeMillis();
+    }
+
+    // add a process, returns a view over its row
+    public Process add(String processName, int priority, int burstTime) {
+        return new Process(this, addRow(processName, priority, burstTime));
+    }
+
+    /**
+     * Add a process that alternates CPU and I/O: cpuBursts[0], ioBursts[0], cpuBursts[1], ...
+     * There is one I/O burst between each two CPU bursts, and every CPU burst is at least 1 unit
+     */
+    public Process add(String processName, int priority, int[] cpuBursts, IoBurst[] ioBursts) {
+        if (cpuBursts.length == 0 || ioBursts.length != cpuBursts.length - 1) {
+            throw new IllegalArgumentException("Need one I/O burst between each two CPU bursts, got "
+                + cpuBursts.length + " CPU and " + ioBursts.length + " I/O bursts");
+        }
+        int[] plan = new int[cpuBursts.length * 4 - 3];
+        int total = 0;
+        for (int i = 0; i < cpuBursts.length; i++) {
+            if (cpuBursts[i] < 1) {
+                throw new IllegalArgumentException("CPU bursts must be at least 1 unit, got " + cpuBursts[i]);
+            }
+            plan[i * 4] = cpuBursts[i];
+            total += cpuBursts[i];
+            if (i < ioBursts.length) {
+                IoBurst io = ioBursts[i];
+                if (io.length < 0) {
+                    throw new IllegalArgumentException("I/O length must not be negative, got " + io.length);
+                }
+                plan[i * 4 + 1] = io.device;
+                plan[i * 4 + 2] = io.track;
+                plan[i * 4 + 3] = io.length;
+            }
+        }
+        Process process = add(processName, priority, total);
+        if (ioBursts.length > 0) {
+            synchronized (this) {
+                int slot = process.getSlot();
+                burstPlans[slot] = plan;
+                cpuAfterBursts[slot] = total - cpuBursts[0];
+            }
+        }
+        return process;
+    }
+
+    /**
+     * Add one job of a real-time task: its CPU burst is the WCET and its deadline is
+     * params.deadline units after its arrival (release) time
+     */
+    public Process add(String processName, int priority, RealTimeParams params) {
+        if (params.wcet < 1 || params.deadline < 1 || params.period < 0) {
+            throw new IllegalArgumentException("Real-time jobs need WCET and deadline of at least 1 unit, got " + params);
+        }
+        Process process = add(processName, priority, params.wcet);
+        synchronized (this) {
+            int slot = process.getSlot();
+            deadlines[slot] = params.deadline;
+            periods[slot] = params.period;
+            wcets[slot] = params.wcet;
+        }
+        return process;
+    }
+
+    // add an unnamed process (name comes from the name loader when asked for)
+    public Process add(int priority, int burstTime) {
+        return add(null, priority, burstTime);
+    }
+
+    /**
+     * Add a thread to a process of this table; the thread is a schedulable row of its own
+     */
+    public Thread addThread(Process parent, String threadName, int executionTime, Thread.ThreadPriority priority) {
+        if (parent.getTable() != this) {
+            throw new IllegalArgumentException("Process " + parent.getPID() + " is not in this table");
+        }
+        return new Thread(this, addThreadRow(parent.getPID(), threadName, priority.value, executionTime));
+    }
+
+    // append a thread row; the parent (if it is in this table) counts it as live
+    synchronized int addThreadRow(int parentPID, String threadName, int priority, int executionTime) {
+        int slot = addRow(threadName, priority, executionTime);
+        parentPids[slot] = parentPID;
+        StateStripe stripe = stripeOf(slot);
+        synchronized (stripe) {
+            stripe.countThread(stripe.states[rowOf(slot)], 1);
+        }
+        int parentSlot = slotOf(parentPID);
+        if (parentSlot >= 0) {
+            liveThreads[parentSlot]++;
+        }
+        return slot;
+    }
+
+    // append a row, returns its slot
+    synchronized int addRow(String processName, int priority, int burstTime) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (size == pids.length) {
+                grow();
+            }
+            slot = size++;
+        }
+        pids[slot] = nextPID++;
+        if (pidIndexKeys != null) {
+            indexPut(pids[slot], slot);
+        }
+        priorities[slot] = priority;
+        StateStripe stripe = stripeOf(slot);
+        synchronized (stripe) {
+            stripe.ensureRow(rowOf(slot));
+            stripe.states[rowOf(slot)] = (byte) ProcessState.NEW.ordinal();
+            stripe.add(ProcessState.NEW.ordinal(), slot);
+        }
+        totalBurst[slot] = burstTime;
+        remainingBurst[slot] = burstTime;
+        arrivalTimes[slot] = 0;
+        startTimes[slot] = -1; // -1 = unset, avoid overwriting time 0
+        endTimes[slot] = -1;
+        waitingTimes[slot] = 0;
+        turnaroundTimes[slot] = 0;
+        queueLevels[slot] = 0;
+        virtualRuntimes[slot] = 0;
+        timeSlices[slot] = 0;
+        heapPositions[slot] = -1;
+        parentPids[slot] = NO_PARENT;
+        liveThreads[slot] = 0;
+        burstPlans[slot] = null;
+        iosDone[slot] = 0;
+        cpuAfterBursts[slot] = 0;
+        ioTimes[slot] = 0;
+        deadlines[slot] = 0;
+        periods[slot] = 0;
+        wcets[slot] = 0;
+        predictedBursts[slot] = 0;
+        tickets[slot] = 0;
+        names[slot] = processName != null ? processName.intern() : null;
+        return slot;
+    }
+
+    /**
+     * Free the row of a terminated process so a later process can take its slot
+     */
+    public synchronized void release(Process process) {
+        if (process.getTable() != this) {
+            throw new IllegalArgumentException("Process " + process.getPID() + " is not in this table");
+        }
+        int slot = process.getSlot();
+        StateStripe stripe = stripeOf(slot);
+        synchronized (stripe) {
+            int state = stripe.states[rowOf(slot)];
+            if (state != ProcessState.TERMINATED.ordinal()) {
+                throw new IllegalStateException("Only terminated processes can be released, PID " + pids[slot]
+                    + " is " + state(slot).getDisplayName());
+            }
+            stripe.remove(state, slot);
+            if (parentPids[slot] != NO_PARENT) {
+                stripe.countThread(state, -1);
+            }
+            stripe.states[rowOf(slot)] = RELEASED;
+        }
+        if (pidIndexKeys == null) {
+            buildPidIndex();
+        }
+        indexRemove(pids[slot]);
+        names[slot] = null;
+        burstPlans[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private boolean isReleased(int slot) {
+        return stripeOf(slot).states[rowOf(slot)] == RELEASED;
+    }
+
+    private StateStripe stripeOf(int slot) {
+        return stripes[slot & STRIPE_MASK];
+    }
+
+    // index of a slot inside its stripe
+    private static int rowOf(int slot) {
+        return slot >>> STRIPE_BITS;
+    }
+
+    // Open-addressing PID -> slot index with linear probing
+    private void buildPidIndex() {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, size) * 4 - 1);
+        pidIndexKeys = new int[capacity];
+        pidIndexSlots = new int[capacity];
+        Arrays.fill(pidIndexKeys, NO_PID);
+        for (int slot = 0; slot < size; slot++) {
+            if (!isReleased(slot)) {
+                indexPut(pids[slot], slot);
+            }
+        }
+    }
+
+    private int indexPosition(int pid) {
+        int mask = pidIndexKeys.length - 1;
+        int position = (pid * 0x9E3779B9) >>> 1 & mask;
+        while (pidIndexKeys[position] != NO_PID && pidIndexKeys[position] != pid) {
+            position = (position + 1) & mask;
+        }
+        return position;
+    }
+
+    private void indexPut(int pid, int slot) {
+        if ((size - freeCount) * 2 > pidIndexKeys.length) {
+            int[] oldKeys = pidIndexKeys;
+            int[] oldSlots = pidIndexSlots;
+            pidIndexKeys = new int[oldKeys.length * 2];
+            pidIndexSlots = new int[oldKeys.length * 2];
+            Arrays.fill(pidIndexKeys, NO_PID);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != NO_PID) {
+                    int position = indexPosition(oldKeys[i]);
+                    pidIndexKeys[position] = oldKeys[i];
+                    pidIndexSlots[position] = oldSlots[i];
+                }
+            }
+        }
+        int position = indexPosition(pid);
+        pidIndexKeys[position] = pid;
+        pidIndexSlots[position] = slot;
+    }
+
+    // backward-shift deletion keeps every probe chain unbroken without tombstones
+    private void indexRemove(int pid) {
+        int mask = pidIndexKeys.length - 1;
+        int hole = indexPosition(pid);
+        if (pidIndexKeys[hole] == NO_PID) return;
+        int position = hole;
+        while (true) {
+            position = (position + 1) & mask;
+            int key = pidIndexKeys[position];
+            if (key == NO_PID) break;
+            int home = (key * 0x9E3779B9) >>> 1 & mask;
+            // move the entry back unless its home lies cyclically in (hole, position]
+            boolean stays = hole <= position ? (hole < home && home <= position) : (hole < home || home <= position);
+            if (!stays) {
+                pidIndexKeys[hole] = key;
+                pidIndexSlots[hole] = pidIndexSlots[position];
+                hole = position;
+            }
+        }
+        pidIndexKeys[hole] = NO_PID;
+    }
+
+    private void grow() {
+        int capacity = pids.length * 2;
+        pids = Arrays.copyOf(pids, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        totalBurst = Arrays.copyOf(totalBurst, capacity);
+        remainingBurst = Arrays.copyOf(remainingBurst, capacity);
+        arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        endTimes = Arrays.copyOf(endTimes, capacity);
+        waitingTimes = Arrays.copyOf(waitingTimes, capacity);
+        turnaroundTimes = Arrays.copyOf(turnaroundTimes, capacity);
+        queueLevels = Arrays.copyOf(queueLevels, capacity);
+        virtualRuntimes = Arrays.copyOf(virtualRuntimes, capacity);
+        timeSlices = Arrays.copyOf(timeSlices, capacity);
+        heapPositions = Arrays.copyOf(heapPositions, capacity);
+        parentPids = Arrays.copyOf(parentPids, capacity);
+        liveThreads = Arrays.copyOf(liveThreads, capacity);
+        burstPlans = Arrays.copyOf(burstPlans, capacity);
+        iosDone = Arrays.copyOf(iosDone, capacity);
+        cpuAfterBursts = Arrays.copyOf(cpuAfterBursts, capacity);
+        ioTimes = Arrays.copyOf(ioTimes, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        periods = Arrays.copyOf(periods, capacity);
+        wcets = Arrays.copyOf(wcets, capacity);
+        predictedBursts = Arrays.copyOf(predictedBursts, capacity);
+        tickets = Arrays.copyOf(tickets, capacity);
+        names = Arrays.copyOf(names, capacity);
+    }
+
+    /**
+     * State index of the rows whose slots share their low STRIPE_BITS: each row's state, its
+     * place in its state's member set and the per-state counts. They only change under the
+     * stripe's monitor; the counts are atomic so they are read without it.
+     */
+    private static final class StateStripe {
+        private byte[] states;                 // by row (slot >>> STRIPE_BITS)
+        private int[] positions;               // index of the row inside its state's member set
+        private final int[][] members = new int[STATES.length][]; // per state: dense array of slots
+        private final AtomicIntegerArray counts = new AtomicIntegerArray(STATES.length);
+        private final AtomicIntegerArray threadCounts = new AtomicIntegerArray(STATES.length); // thread rows among counts
+
+        StateStripe(int rows) {
+            states = new byte[rows];
+            positions = new int[rows];
+            for (int i = 0; i < STATES.length; i++) {
+                members[i] = new int[i == ProcessState.NEW.ordinal() ? rows : DEFAULT_CAPACITY];
+            }
+        }
+
+        void ensureRow(int row) {
+            if (row >= states.length) {
+                int capacity = Math.max(row + 1, states.length * 2);
+                states = Arrays.copyOf(states, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+            }
+        }
+
+        // O(1) add of a slot to a state's member set
+        void add(int state, int slot) {
+            int count = counts.getPlain(state);
+            if (count == members[state].length) {
+                members[state] = Arrays.copyOf(members[state], count * 2);
+            }
+            members[state][count] = slot;
+            positions[rowOf(slot)] = count;
+            counts.setRelease(state, count + 1);
+        }
+
+        // O(1) removal: the last member takes the removed slot's place
+        void remove(int state, int slot) {
+            int count = counts.getPlain(state) - 1;
+            int last = members[state][count];
+            int position = positions[rowOf(slot)];
+            members[state][position] = last;
+            positions[rowOf(last)] = position;
+            counts.setRelease(state, count);
+        }
+
+        void countThread(int state, int delta) {
+            threadCounts.setRelease(state, threadCounts.getPlain(state) + delta);
+        }
+    }
+
+    /**
+     * Number of rows currently in the given state
+     */
+    public int getStateCount(ProcessState state) {
+        int count = 0;
+        for (StateStripe stripe : stripes) {
+            count += stripe.counts.get(state.ordinal());
+        }
+        return count;
+    }
+
+    /**
+     * Number of thread rows currently in the given state (included in getStateCount)
+     */
+    public int getThreadStateCount(ProcessState state) {
+        int count = 0;
+        for (StateStripe stripe : stripes) {
+            count += stripe.threadCounts.get(state.ordinal());
+        }
+        return count;
+    }
+
+    /**
+     * Number of thread rows in the table (included in size)
+     */
+    public int getThreadCount() {
+        int count = 0;
+        for (ProcessState state : STATES) {
+            count += getThreadStateCount(state);
+        }
+        return count;
+    }
+
+    /**
+     * Views over the rows currently in the given state (order is unspecified)
+     */
+    public List<Process> viewsInState(ProcessState state) {
+        List<Process> result = new ArrayList<>(getStateCount(state));
+        for (StateStripe stripe : stripes) {
+            synchronized (stripe) {
+                int count = stripe.counts.getPlain(state.ordinal());
+                int[] members = stripe.members[state.ordinal()];
+                for (int i = 0; i < count; i++) {
+                    result.add(new Process(this, members[i]));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get a view over the process in the given row
+     */
+    public synchronized Process view(int slot) {
+        if (slot < 0 || slot >= size || isReleased(slot)) {
+            throw new IndexOutOfBoundsException("No process in slot " + slot);
+        }
+        return new Process(this, slot);
+    }
+
+    /**
+     * Find a process by PID, null if it is not in this table
+     */
+    public Process findByPID(int pid) {
+        int slot = slotOf(pid);
+        return slot < 0 ? null : new Process(this, slot);
+    }
+
+    // PIDs are handed out in increasing order, so rows are sorted by PID until a slot is reused
+    public synchronized int slotOf(int pid) {
+        if (pidIndexKeys != null) {
+            int position = indexPosition(pid);
+            return pidIndexKeys[position] == NO_PID ? -1 : pidIndexSlots[position];
+        }
+        int slot = Arrays.binarySearch(pids, 0, size, pid);
+        return slot < 0 ? -1 : slot;
+    }
+
+    /**
+     * Views over every row, in slot order (creation order unless slots were reused)
+     */
+    public synchronized List<Process> views() {
+        List<Process> result = new ArrayList<>(size - freeCount);
+        for (int slot = 0; slot < size; slot++) {
+            if (!isReleased(slot)) {
+                result.add(new Process(this, slot));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of processes in the table (released rows excluded)
+     */
+    public synchronized int size() {
+        return size - freeCount;
+    }
+
+    public void setNameLoader(IntFunction<String> nameLoader) {
+        this.nameLoader = nameLoader;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * Write every row, free slot and state index to a checkpoint stream, column by column.
+     * Names set by the name loader are not written; set the loader again after readState.
+     */
+    public synchronized void writeState(DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(nextPID);
+        writeColumn(out, pids, size);
+        writeColumn(out, priorities, size);
+        writeColumn(out, totalBurst, size);
+        writeColumn(out, remainingBurst, size);
+        writeColumn(out, arrivalTimes, size);
+        writeColumn(out, startTimes, size);
+        writeColumn(out, endTimes, size);
+        writeColumn(out, waitingTimes, size);
+        writeColumn(out, turnaroundTimes, size);
+        out.write(queueLevels, 0, size);
+        ByteBuffer runtimes = ByteBuffer.allocate(size * Long.BYTES);
+        runtimes.asLongBuffer().put(virtualRuntimes, 0, size);
+        out.write(runtimes.array());
+        writeColumn(out, timeSlices, size);
+        writeColumn(out, parentPids, size);
+        writeColumn(out, liveThreads, size);
+        writeColumn(out, iosDone, size);
+        writeColumn(out, cpuAfterBursts, size);
+        writeColumn(out, ioTimes, size);
+        writeColumn(out, deadlines, size);
+        writeColumn(out, periods, size);
+        writeColumn(out, wcets, size);
+        writeColumn(out, predictedBursts, size);
+        writeColumn(out, tickets, size);
+        // sparse columns: only the rows that have a burst plan / a stored name
+        int planned = 0;
+        int named = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (burstPlans[slot] != null) planned++;
+            if (names[slot] != null) named++;
+        }
+        out.writeInt(planned);
+        for (int slot = 0; slot < size; slot++) {
+            if (burstPlans[slot] != null) {
+                out.writeInt(slot);
+                out.writeInt(burstPlans[slot].length);
+                writeColumn(out, burstPlans[slot], burstPlans[slot].length);
+            }
+        }
+        out.writeInt(named);
+        for (int slot = 0; slot < size; slot++) {
+            if (names[slot] != null) {
+                out.writeInt(slot);
+                out.writeUTF(names[slot]);
+            }
+        }
+        // state sets keep their member order, so viewsInState stays the same after a restore
+        for (int i = 0; i < stripes.length; i++) {
+            StateStripe stripe = stripes[i];
+            synchronized (stripe) {
+                out.write(stripe.states, 0, (size - i + STRIPE_MASK) >>> STRIPE_BITS);
+                for (int state = 0; state < STATES.length; state++) {
+                    out.writeInt(stripe.counts.getPlain(state));
+                    out.writeInt(stripe.threadCounts.getPlain(state));
+                    writeColumn(out, stripe.members[state], stripe.counts.getPlain(state));
+                }
+            }
+        }
+        out.writeInt(freeCount);
+        writeColumn(out, freeSlots, freeCount);
+        out.writeBoolean(pidIndexKeys != null);
+    }
+
+    /**
+     * Read a table written by writeState; rows keep their slots and PIDs
+     */
+    public static ProcessTable readState(DataInput in) throws IOException {
+        int size = in.readInt();
+        ProcessTable table = new ProcessTable(size, in.readInt());
+        table.size = size;
+        readColumn(in, table.pids, size);
+        readColumn(in, table.priorities, size);
+        readColumn(in, table.totalBurst, size);
+        readColumn(in, table.remainingBurst, size);
+        readColumn(in, table.arrivalTimes, size);
+        readColumn(in, table.startTimes, size);
+        readColumn(in, table.endTimes, size);
+        readColumn(in, table.waitingTimes, size);
+        readColumn(in, table.turnaroundTimes, size);
+        in.readFully(table.queueLevels, 0, size);
+        byte[] runtimes = new byte[size * Long.BYTES];
+        in.readFully(runtimes);
+        ByteBuffer.wrap(runtimes).asLongBuffer().get(table.virtualRuntimes, 0, size);
+        readColumn(in, table.timeSlices, size);
+        readColumn(in, table.parentPids, size);
+        readColumn(in, table.liveThreads, size);
+        readColumn(in, table.iosDone, size);
+        readColumn(in, table.cpuAfterBursts, size);
+        readColumn(in, table.ioTimes, size);
+        readColumn(in, table.deadlines, size);
+        readColumn(in, table.periods, size);
+        readColumn(in, table.wcets, size);
+        readColumn(in, table.predictedBursts, size);
+        readColumn(in, table.tickets, size);
+        int planned = in.readInt();
+        for (int i = 0; i < planned; i++) {
+            int slot = in.readInt();
+            table.burstPlans[slot] = new int[in.readInt()];
+            readColumn(in, table.burstPlans[slot], table.burstPlans[slot].length);
+        }
+        int named = in.readInt();
+        for (int i = 0; i < named; i++) {
+            int slot = in.readInt();
+            table.names[slot] = in.readUTF().intern();
+        }
+        for (int i = 0; i < table.stripes.length; i++) {
+            StateStripe stripe = table.stripes[i];
+            in.readFully(stripe.states, 0, (size - i + STRIPE_MASK) >>> STRIPE_BITS);
+            for (int state = 0; state < STATES.length; state++) {
+                int count = in.readInt();
+                stripe.threadCounts.set(state, in.readInt());
+                stripe.members[state] = new int[Math.max(DEFAULT_CAPACITY, count)];
+                readColumn(in, stripe.members[state], count);
+                stripe.counts.set(state, count);
+                for (int position = 0; position < count; position++) {
+                    stripe.positions[rowOf(stripe.members[state][position])] = position;
+                }
+            }
+        }
+        table.freeCount = in.readInt();
+        table.freeSlots = new int[Math.max(DEFAULT_CAPACITY, table.freeCount)];
+        readColumn(in, table.freeSlots, table.freeCount);
+        if (in.readBoolean()) {
+            table.buildPidIndex();
+        }
+        return table;
+    }
+
+    // whole column in one write instead of one call per value
+    private static void writeColumn(DataOutput out, int[] column, int count) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(count * Integer.BYTES);
+        bytes.asIntBuffer().put(column, 0, count);
+        out.write(bytes.array());
+    }
+
+    private static void readColumn(DataInput in, int[] column, int count) throws IOException {
+        byte[] bytes = new byte[count * Integer.BYTES];
+        in.readFully(bytes);
+        ByteBuffer.wrap(bytes).asIntBuffer().get(column, 0, count);
+    }
+
+    // column accessors used by Process views
+    int pid(int slot) { return pids[slot]; }
+
+    String name(int slot) {
+        String name = names[slot];
+        if (name != null) return name;
+        return nameLoader != null ? nameLoader.apply(pids[slot]) : "Process-" + pids[slot];
+    }
+
+    int priority(int slot) { return priorities[slot]; }
+    void setPriority(int slot, int priority) { priorities[slot] = priority; }
+
+    ProcessState state(int slot) { return STATES[stripeOf(slot).states[rowOf(slot)]]; }
+
+    // only the row's stripe is locked, and not even that when the row is already in the state
+    void setState(int slot, ProcessState state) {
+        int to = state.ordinal();
+        StateStripe stripe = stripeOf(slot);
+        if (stripe.states[rowOf(slot)] == to) return;
+        synchronized (stripe) {
+            int from = stripe.states[rowOf(slot)];
+            if (from == to) return;
+            stripe.remove(from, slot);
+            stripe.add(to, slot);
+            stripe.states[rowOf(slot)] = (byte) to;
+            if (parentPids[slot] != NO_PARENT) {
+                stripe.countThread(from, -1);
+                stripe.countThread(to, 1);
+            }
+        }
+    }
+
+    // a finished process with live threads blocks until they finish; false = it can terminate now
+    synchronized boolean waitForThreads(int slot) {
+        if (liveThreads[slot] == 0) return false;
+        setState(slot, ProcessState.BLOCKED);
+        return true;
+    }
+
+    // count a thread as finished; true when its parent was only waiting for this last thread
+    synchronized boolean threadFinished(int parentSlot) {
+        liveThreads[parentSlot]--;
+        return liveThreads[parentSlot] == 0 && state(parentSlot) == ProcessState.BLOCKED
+            && remainingBurst[parentSlot] <= 0;
+    }
+
+    int totalBurst(int slot) { return totalBurst[slot]; }
+    int remainingBurst(int slot) { return remainingBurst[slot]; }
+    void setRemainingBurst(int slot, int remaining) { remainingBurst[slot] = remaining; }
+
+    int arrivalTime(int slot) { return arrivalTimes[slot]; }
+    void setArrivalTime(int slot, int time) { arrivalTimes[slot] = time; }
+
+    int startTime(int slot) { return startTimes[slot]; }
+    void setStartTime(int slot, int time) { startTimes[slot] = time; }
+
+    int endTime(int slot) { return endTimes[slot]; }
+    void setEndTime(int slot, int time) { endTimes[slot] = time; }
+
+    int waitingTime(int slot) { return waitingTimes[slot]; }
+    void setWaitingTime(int slot, int time) { waitingTimes[slot] = time; }
+
+    int turnaroundTime(int slot) { return turnaroundTimes[slot]; }
+    void setTurnaroundTime(int slot, int time) { turnaroundTimes[slot] = time; }
+
+    int queueLevel(int slot) { return queueLevels[slot]; }
+    void setQueueLevel(int slot, int level) { queueLevels[slot] = (byte) level; }
+
+    long virtualRuntime(int slot) { return virtualRuntimes[slot]; }
+    void setVirtualRuntime(int slot, long vruntime) { virtualRuntimes[slot] = vruntime; }
+
+    int timeSlice(int slot) { return timeSlices[slot]; }
+    void setTimeSlice(int slot, int slice) { timeSlices[slot] = slice; }
+
+    int heapPosition(int slot) { return heapPositions[slot]; }
+    void setHeapPosition(int slot, int position) { heapPositions[slot] = position; }
+
+    // the current CPU burst is used up and an I/O burst comes next
+    boolean needsIo(int slot) {
+        return cpuAfterBursts[slot] > 0 && remainingBurst[slot] <= cpuAfterBursts[slot];
+    }
+
+    int burstRemaining(int slot) { return remainingBurst[slot] - cpuAfterBursts[slot]; }
+    int ioBurstCount(int slot) { return burstPlans[slot] == null ? 0 : burstPlans[slot].length / 4; }
+
+    // length of the current CPU burst (the whole burst for a CPU-only process)
+    int cpuBurst(int slot) { return burstPlans[slot] == null ? totalBurst[slot] : burstPlans[slot][iosDone[slot] * 4]; }
+
+    int predictedBurst(int slot) { return predictedBursts[slot]; }
+    void setPredictedBurst(int slot, int burst) { predictedBursts[slot] = burst; }
+
+    int tickets(int slot) { return tickets[slot]; }
+    void setTickets(int slot, int count) { tickets[slot] = count; }
+
+    // field of the next I/O burst: 0 = device, 1 = track, 2 = length
+    int nextIo(int slot, int field) { return burstPlans[slot][iosDone[slot] * 4 + 1 + field]; }
+
+    // I/O burst done: the next CPU burst becomes current
+    void completeIo(int slot) {
+        int done = ++iosDone[slot];
+        cpuAfterBursts[slot] -= burstPlans[slot][done * 4];
+    }
+
+    int ioTime(int slot) { return ioTimes[slot]; }
+
+    // absolute deadline, NO_DEADLINE if the row has none
+    int deadline(int slot) {
+        return deadlines[slot] == 0 ? NO_DEADLINE : arrivalTimes[slot] + deadlines[slot];
+    }
+
+    int period(int slot) { return periods[slot]; }
+    int wcet(int slot) { return wcets[slot]; }
+    void addIoTime(int slot, int time) { ioTimes[slot] += time; }
+
+    int parentPid(int slot) { return parentPids[slot]; }
+    synchronized int liveThreads(int slot) { return liveThreads[slot]; }
+}
@@ -0,0 +1,25 @@
+package process;
+
+// Timing of a real-time task: a job is released every period, runs for up to wcet and is due deadline units after its release
+public class RealTimeParams {
+    public final int period;   // time between two releases, 0 = a single job
+    public final int deadline; // relative to each release
+    public final int wcet;     // worst-case execution time of one job, used as its CPU burst
+
+    public RealTimeParams(int period, int deadline, int wcet) {
+        this.period = period;
+        this.deadline = deadline;
+        this.wcet = wcet;
+    }
+
+    // share of one CPU the task needs to meet every deadline: wcet / min(deadline, period)
+    public double getDensity() {
+        int window = period > 0 ? Math.min(deadline, period) : deadline;
+        return (double) wcet / window;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Period: %d, Deadline: %d, WCET: %d]", period, deadline, wcet);
+    }
+}
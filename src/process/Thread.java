@@ -1,16 +1,11 @@
 package process;
 
 // User thread: has own ID, parent PID, remaining time
+// Thin view over a thread row of a ProcessTable; the row is scheduled like a process
+// (asProcess) and thread IDs come from the same sequence as PIDs
 public class Thread {
-    private static int nextThreadID = 2000;
-    private final int threadID;
-    private final int parentPID;
-    private String threadName;
-    private ProcessState state;
-    private int executionTime;
-    private int remainingTime;
-    private ThreadPriority priority;
-    private long creationTime;
+    private final ProcessTable table;
+    private final int slot;
 
     public enum ThreadPriority {
         LOW(1), NORMAL(5), HIGH(10);
@@ -20,72 +15,86 @@ public class Thread {
         ThreadPriority(int value) {
             this.value = value;
         }
+
+        // nearest priority at or below a scheduling priority value
+        public static ThreadPriority of(int value) {
+            if (value >= HIGH.value) return HIGH;
+            if (value >= NORMAL.value) return NORMAL;
+            return LOW;
+        }
     }
 
-    // New thread in process
+    // New thread in process (in a table of its own)
     public Thread(int parentPID, String threadName, int executionTime, ThreadPriority priority) {
-        this.threadID = nextThreadID++;
-        this.parentPID = parentPID;
-        this.threadName = threadName;
-        this.executionTime = executionTime;
-        this.remainingTime = executionTime;
-        this.state = ProcessState.NEW;
-        this.priority = priority;
-        this.creationTime = System.currentTimeMillis();
+        this.table = new ProcessTable(1, Process.allocatePID());
+        this.slot = table.addThreadRow(parentPID, threadName, priority.value, executionTime);
+    }
+
+    // View over an existing thread row
+    Thread(ProcessTable table, int slot) {
+        this.table = table;
+        this.slot = slot;
+    }
+
+    // the same row as a schedulable entity
+    public Process asProcess() {
+        return new Process(table, slot);
     }
 
     // getters/setters
     public int getThreadID() {
-        return threadID;
+        return table.pid(slot);
     }
 
     public int getParentPID() {
-        return parentPID;
+        return table.parentPid(slot);
     }
 
     public String getThreadName() {
-        return threadName;
+        return table.name(slot);
     }
 
     public ProcessState getState() {
-        return state;
+        return table.state(slot);
     }
 
     public void setState(ProcessState state) {
-        this.state = state;
+        table.setState(slot, state);
     }
 
     public int getExecutionTime() {
-        return executionTime;
+        return table.totalBurst(slot);
     }
 
     public int getRemainingTime() {
-        return remainingTime;
+        return table.remainingBurst(slot);
     }
 
     public void reduceRemainingTime(int amount) {
-        this.remainingTime = Math.max(0, remainingTime - amount);
+        table.setRemainingBurst(slot, Math.max(0, table.remainingBurst(slot) - amount));
     }
 
     public boolean isComplete() {
-        return remainingTime <= 0;
+        return table.remainingBurst(slot) <= 0;
     }
 
     public ThreadPriority getPriority() {
-        return priority;
+        return ThreadPriority.of(table.priority(slot));
     }
 
     public void setPriority(ThreadPriority priority) {
-        this.priority = priority;
+        table.setPriority(slot, priority.value);
     }
 
+    // Wall-clock time the backing table was created (not tracked per thread)
     public long getCreationTime() {
-        return creationTime;
+        return table.getCreationTime();
     }
 
     @Override
     public String toString() {
         return String.format("[TID: %d, Name: %s, ParentPID: %d, Priority: %s, State: %s, Remaining: %d/%d]",
-                threadID, threadName, parentPID, priority, state.getDisplayName(), remainingTime, executionTime);
+                getThreadID(), getThreadName(), getParentPID(), getPriority(), getState().getDisplayName(),
+                getRemainingTime(), getExecutionTime());
     }
 }
@@ -0,0 +1,83 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.IntFunction;
+
+/**
+ * EDF: indexed heap ordered by absolute deadline, FIFO among equal deadlines.
+ *   - a real-time job runs until it completes or a job with an earlier deadline preempts it
+ *   - processes without a deadline sort last and share the CPU round-robin with the
+ *     normal quantum, so batch work only runs when no real-time job is ready
+ */
+class DeadlineReadyQueue implements ReadyQueue {
+    private final ProcessHeap heap = new ProcessHeap(ProcessHeap.BY_DEADLINE, true);
+
+    @Override
+    public void add(Process process) {
+        heap.add(process);
+    }
+
+    @Override
+    public Process poll() {
+        return heap.poll();
+    }
+
+    // O(log n)
+    @Override
+    public boolean remove(Process process) {
+        return heap.remove(process);
+    }
+
+    @Override
+    public boolean contains(Process process) {
+        return heap.contains(process);
+    }
+
+    // the queue ignores priorities, only the deadline orders it
+    @Override
+    public void changePriority(Process process, int priority) {
+        process.setPriority(priority);
+    }
+
+    // no quantum for real-time jobs
+    @Override
+    public int timeSliceOf(Process process, int timeQuantum) {
+        return process.hasDeadline() ? Integer.MAX_VALUE : timeQuantum;
+    }
+
+    @Override
+    public boolean preempts(Process running) {
+        Process first = heap.peek();
+        return first != null && first.getDeadline() < running.getDeadline();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    // poll order, so ties keep their FIFO order when added back
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(heap.size());
+        for (Process process : heap.toSortedArray()) {
+            out.writeInt(process.getPID());
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            heap.add(processes.apply(in.readInt()));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+/**
+ * CFS: runnable processes in a red-black tree ordered by weighted virtual runtime;
+ * the leftmost (least run) process goes next.
+ *   - weight comes from the priority (priority 5 = nice 0 = weight 1024, each step is ~25%)
+ *   - the slice is the process's share of the scheduling period, where the period is the
+ *     target latency stretched to minGranularity per runnable process
+ *   - a process that ran for d units is charged d * 1024 / weight of virtual runtime
+ * The slice is fixed when the process is picked, so the expiry does not move while it runs.
+ */
+class FairReadyQueue implements ReadyQueue {
+    static final int NICE_0_WEIGHT = 1024;
+    static final int VRUNTIME_SCALE = 1024; // virtual runtime is kept in 1/1024 time units
+
+    // Linux sched_prio_to_weight, nice -20 .. 19
+    private static final int[] NICE_TO_WEIGHT = {
+        88761, 71755, 56483, 46273, 36291,
+        29154, 23254, 18705, 14949, 11916,
+        9548, 7620, 6100, 4904, 3906,
+        3121, 2501, 1991, 1586, 1277,
+        1024, 820, 655, 526, 423,
+        335, 272, 215, 172, 137,
+        110, 87, 70, 56, 45,
+        36, 29, 23, 18, 15,
+    };
+
+    // leftmost = smallest virtual runtime; PID and slot only break ties
+    private static final Comparator<Process> BY_VRUNTIME = Comparator
+        .comparingLong(Process::getVirtualRuntime)
+        .thenComparingInt(Process::getPID)
+        .thenComparingInt(p -> System.identityHashCode(p.getTable()))
+        .thenComparingInt(Process::getSlot);
+
+    private final TreeSet<Process> tree;
+    private long totalWeight;           // weight of every queued process
+    private long minVirtualRuntime;     // never decreases; floor for (re)joining processes
+    private int targetLatency;
+    private int minGranularity;
+
+    FairReadyQueue(int timeQuantum) {
+        this.tree = new TreeSet<>(BY_VRUNTIME);
+        this.totalWeight = 0;
+        this.minVirtualRuntime = 0;
+        this.minGranularity = Math.max(1, timeQuantum);
+        this.targetLatency = this.minGranularity * 8;
+    }
+
+    void configure(int targetLatency, int minGranularity) {
+        this.minGranularity = Math.max(1, minGranularity);
+        this.targetLatency = Math.max(this.minGranularity, targetLatency);
+    }
+
+    // new minimum granularity, target latency scaled along with it
+    void setMinGranularity(int minGranularity) {
+        minGranularity = Math.max(1, minGranularity);
+        long latency = (long) targetLatency * minGranularity / this.minGranularity;
+        this.targetLatency = (int) Math.max(minGranularity, Math.min(Integer.MAX_VALUE, latency));
+        this.minGranularity = minGranularity;
+    }
+
+    // priority 5 is nice 0; each priority step above or below is two nice levels
+    static int weightOf(Process process) {
+        int nice = 2 * (5 - process.getPriority());
+        return NICE_TO_WEIGHT[Math.max(0, Math.min(NICE_TO_WEIGHT.length - 1, nice + 20))];
+    }
+
+    // new and migrated processes start no earlier than the queue's minimum, so they cannot hog the CPU
+    @Override
+    public void add(Process process) {
+        if (process.getVirtualRuntime() < minVirtualRuntime) {
+            process.setVirtualRuntime(minVirtualRuntime);
+        }
+        insert(process);
+    }
+
+    // charge the slice it just used, weighted
+    @Override
+    public void requeue(Process process) {
+        charge(process, process.getTimeSlice());
+        insert(process);
+    }
+
+    // a process going to sleep is charged for the part of its slice it used; it rejoins through add
+    @Override
+    public void block(Process process, int ranFor) {
+        charge(process, ranFor);
+    }
+
+    private void charge(Process process, int ranFor) {
+        long charge = (long) ranFor * NICE_0_WEIGHT * VRUNTIME_SCALE / weightOf(process);
+        process.setVirtualRuntime(process.getVirtualRuntime() + charge);
+    }
+
+    private void insert(Process process) {
+        tree.add(process);
+        totalWeight += weightOf(process);
+    }
+
+    @Override
+    public Process poll() {
+        Process process = tree.pollFirst();
+        if (process == null) return null;
+        int weight = weightOf(process);
+        int runnable = tree.size() + 1;
+        long period = Math.max(targetLatency, (long) minGranularity * runnable);
+        long slice = period * weight / Math.max(weight, totalWeight);
+        process.setTimeSlice((int) Math.max(1, Math.min(Integer.MAX_VALUE, slice)));
+        totalWeight -= weight;
+        minVirtualRuntime = Math.max(minVirtualRuntime, process.getVirtualRuntime());
+        return process;
+    }
+
+    // O(log n)
+    @Override
+    public boolean remove(Process process) {
+        if (!tree.remove(process)) return false;
+        totalWeight -= weightOf(process);
+        return true;
+    }
+
+    // O(log n)
+    @Override
+    public boolean contains(Process process) {
+        return tree.contains(process);
+    }
+
+    // the tree is ordered by virtual runtime, so only the queue's total weight changes
+    @Override
+    public void changePriority(Process process, int priority) {
+        boolean queued = tree.contains(process);
+        if (queued) {
+            totalWeight -= weightOf(process);
+        }
+        process.setPriority(priority);
+        if (queued) {
+            totalWeight += weightOf(process);
+        }
+    }
+
+    @Override
+    public int timeSliceOf(Process process, int timeQuantum) {
+        return process.getTimeSlice();
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tree.isEmpty();
+    }
+
+    // virtual runtimes live in the process table, so the PIDs are enough to rebuild the tree
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(targetLatency);
+        out.writeInt(minGranularity);
+        out.writeLong(minVirtualRuntime);
+        out.writeInt(tree.size());
+        for (Process process : tree) {
+            out.writeInt(process.getPID());
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        targetLatency = in.readInt();
+        minGranularity = in.readInt();
+        minVirtualRuntime = in.readLong();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            insert(processes.apply(in.readInt()));
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * MLFQ: a fixed array of FIFO levels (0 = top) and a bitmap of the non-empty ones,
+ * so picking the next process is a single bit scan.
+ *   - new processes start at the level stored on them (0 when created)
+ *   - a process that uses its whole quantum drops one level; lower levels get longer quanta
+ *   - a process waiting longer than the aging threshold moves up one level
+ *   - every boost interval all queued processes go back to the top level
+ */
+class FeedbackReadyQueue implements ReadyQueue {
+    static final int LEVELS = 8;
+
+    private final LevelQueue[] levels;
+    private final IntSupplier clock;    // scheduler time, used for aging and boosts
+    private int baseQuantum;
+    private int nonEmpty;               // bit i set = level i has processes
+    private int size;
+    private int boostInterval;
+    private int agingThreshold;
+    private int lastBoostTime;
+
+    FeedbackReadyQueue(int baseQuantum, IntSupplier clock) {
+        this.levels = new LevelQueue[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            levels[i] = new LevelQueue();
+        }
+        this.clock = clock;
+        this.baseQuantum = Math.max(1, baseQuantum);
+        this.nonEmpty = 0;
+        this.size = 0;
+        this.boostInterval = this.baseQuantum * 64;
+        this.agingThreshold = this.baseQuantum * 16;
+        this.lastBoostTime = 0;
+    }
+
+    void configure(int boostInterval, int agingThreshold) {
+        this.boostInterval = Math.max(1, boostInterval);
+        this.agingThreshold = Math.max(1, agingThreshold);
+    }
+
+    void setBaseQuantum(int baseQuantum) {
+        this.baseQuantum = Math.max(1, baseQuantum);
+    }
+
+    // quantum doubles with every level down
+    @Override
+    public int timeSliceOf(Process process, int timeQuantum) {
+        return baseQuantum << process.getQueueLevel();
+    }
+
+    @Override
+    public void add(Process process) {
+        int level = Math.max(0, Math.min(LEVELS - 1, process.getQueueLevel()));
+        process.setQueueLevel(level);
+        enqueue(level, process, clock.getAsInt());
+    }
+
+    @Override
+    public void requeue(Process process) {
+        int now = clock.getAsInt();
+        int level = process.getQueueLevel();
+        // the process was dispatched one full quantum ago; if a boost happened since, it was boosted too
+        if (lastBoostTime > now - timeSliceOf(process, baseQuantum)) {
+            level = 0;
+        } else if (level < LEVELS - 1) {
+            level++;
+        }
+        process.setQueueLevel(level);
+        enqueue(level, process, now);
+    }
+
+    private void enqueue(int level, Process process, int time) {
+        levels[level].add(process, time);
+        nonEmpty |= 1 << level;
+        size++;
+    }
+
+    @Override
+    public Process poll() {
+        if (size == 0) return null;
+        int now = clock.getAsInt();
+        if (now < lastBoostTime) {
+            lastBoostTime = now; // clock was reset
+        }
+        if (now - lastBoostTime >= boostInterval) {
+            boost(now);
+        } else {
+            age(now);
+        }
+
+        int level = Integer.numberOfTrailingZeros(nonEmpty);
+        LevelQueue queue = levels[level];
+        Process process = queue.poll();
+        if (queue.isEmpty()) {
+            nonEmpty &= ~(1 << level);
+        }
+        size--;
+        return process;
+    }
+
+    // move every queued process to the top level, keeping level order then FIFO order
+    private void boost(int now) {
+        lastBoostTime = now;
+        LevelQueue top = levels[0];
+        int bits = nonEmpty & ~1;
+        while (bits != 0) {
+            int level = Integer.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            LevelQueue queue = levels[level];
+            while (!queue.isEmpty()) {
+                Process process = queue.poll();
+                process.setQueueLevel(0);
+                top.add(process, now);
+            }
+        }
+        if (size > 0) {
+            nonEmpty = 1;
+        }
+    }
+
+    // levels are FIFO by enqueue time, so only the heads can have waited too long
+    private void age(int now) {
+        int bits = nonEmpty & ~1;
+        while (bits != 0) {
+            int level = Integer.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            LevelQueue queue = levels[level];
+            while (!queue.isEmpty() && now - queue.headTime() >= agingThreshold) {
+                Process process = queue.poll();
+                process.setQueueLevel(level - 1);
+                levels[level - 1].add(process, now);
+                nonEmpty |= 1 << (level - 1);
+            }
+            if (queue.isEmpty()) {
+                nonEmpty &= ~(1 << level);
+            }
+        }
+    }
+
+    // O(n) in the process's level; levels do not depend on priority
+    @Override
+    public boolean remove(Process process) {
+        int level = process.getQueueLevel();
+        if (level < 0 || level >= LEVELS || !levels[level].remove(process)) return false;
+        if (levels[level].isEmpty()) {
+            nonEmpty &= ~(1 << level);
+        }
+        size--;
+        return true;
+    }
+
+    // O(n) in the process's level
+    @Override
+    public boolean contains(Process process) {
+        int level = process.getQueueLevel();
+        return level >= 0 && level < LEVELS && levels[level].contains(process);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // tuning and boost clock, then every level in FIFO order with enqueue times (aging depends on them)
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(baseQuantum);
+        out.writeInt(boostInterval);
+        out.writeInt(agingThreshold);
+        out.writeInt(lastBoostTime);
+        for (LevelQueue queue : levels) {
+            out.writeInt(queue.count);
+            for (int i = 0; i < queue.count; i++) {
+                int index = (queue.head + i) & (queue.processes.length - 1);
+                out.writeInt(queue.processes[index].getPID());
+                out.writeInt(queue.times[index]);
+            }
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        baseQuantum = in.readInt();
+        boostInterval = in.readInt();
+        agingThreshold = in.readInt();
+        lastBoostTime = in.readInt();
+        for (int level = 0; level < LEVELS; level++) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Process process = processes.apply(in.readInt());
+                enqueue(level, process, in.readInt());
+            }
+        }
+    }
+
+    // Growable ring of processes with the time each one was enqueued
+    private static class LevelQueue {
+        private Process[] processes = new Process[16];
+        private int[] times = new int[16];
+        private int head = 0;
+        private int count = 0;
+
+        void add(Process process, int time) {
+            if (count == processes.length) {
+                grow();
+            }
+            int tail = (head + count) & (processes.length - 1);
+            processes[tail] = process;
+            times[tail] = time;
+            count++;
+        }
+
+        Process poll() {
+            Process process = processes[head];
+            processes[head] = null;
+            head = (head + 1) & (processes.length - 1);
+            count--;
+            return process;
+        }
+
+        // close the gap by shifting the later entries forward
+        boolean remove(Process process) {
+            int mask = processes.length - 1;
+            for (int i = 0; i < count; i++) {
+                if (!processes[(head + i) & mask].equals(process)) continue;
+                for (int j = i; j < count - 1; j++) {
+                    processes[(head + j) & mask] = processes[(head + j + 1) & mask];
+                    times[(head + j) & mask] = times[(head + j + 1) & mask];
+                }
+                processes[(head + count - 1) & mask] = null;
+                count--;
+                return true;
+            }
+            return false;
+        }
+
+        boolean contains(Process process) {
+            int mask = processes.length - 1;
+            for (int i = 0; i < count; i++) {
+                if (processes[(head + i) & mask].equals(process)) return true;
+            }
+            return false;
+        }
+
+        int headTime() {
+            return times[head];
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        private void grow() {
+            Process[] grownProcesses = new Process[processes.length * 2];
+            int[] grownTimes = new int[times.length * 2];
+            for (int i = 0; i < count; i++) {
+                int from = (head + i) & (processes.length - 1);
+                grownProcesses[i] = processes[from];
+                grownTimes[i] = times[from];
+            }
+            processes = grownProcesses;
+            times = grownTimes;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+
+// ROUND_ROBIN: plain FIFO
+class FifoReadyQueue implements ReadyQueue {
+    private final Deque<Process> queue = new ArrayDeque<>();
+
+    @Override
+    public void add(Process process) {
+        queue.addLast(process);
+    }
+
+    @Override
+    public Process poll() {
+        return queue.pollFirst();
+    }
+
+    // O(n), order does not depend on priority
+    @Override
+    public boolean remove(Process process) {
+        return queue.remove(process);
+    }
+
+    // O(n)
+    @Override
+    public boolean contains(Process process) {
+        return queue.contains(process);
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(queue.size());
+        for (Process process : queue) {
+            out.writeInt(process.getPID());
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            queue.addLast(processes.apply(in.readInt()));
+        }
+    }
+}
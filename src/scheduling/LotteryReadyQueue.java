@@ -0,0 +1,216 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Lottery scheduling: every poll draws a ticket at random, and the process holding it runs
+ * for one quantum, so each process gets CPU in proportion to its tickets.
+ * Queued processes sit in numbered entries (the entry is kept in Process.getHeapPosition);
+ * a Fenwick tree over the entries' ticket counts finds the winner of a draw and applies a
+ * ticket change in O(log n). Freed entries are reused, last freed first.
+ * Draws come from a seeded SplitMix64 generator, so a run (and a resumed checkpoint) is
+ * reproducible.
+ */
+class LotteryReadyQueue implements ReadyQueue {
+    static final long DEFAULT_SEED = 0x5DEECE66DL;
+
+    private Process[] entries = new Process[16];
+    private long[] weights = new long[16];     // tickets of each entry when it was last counted
+    private long[] tree = new long[17];        // Fenwick tree over weights, 1-based
+    private int[] freeEntries = new int[16];
+    private int freeCount = 0;
+    private int used = 0;                      // entries ever handed out; the rest are untouched
+    private int size = 0;
+    private long totalTickets = 0;
+    private long seed;                         // generator state
+
+    LotteryReadyQueue() {
+        this.seed = DEFAULT_SEED;
+    }
+
+    void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // tickets set by transfer / inflation, else the CFS weight of the priority (priority 5 = 1024)
+    static int ticketsOf(Process process) {
+        return process.getTickets() > 0 ? process.getTickets() : FairReadyQueue.weightOf(process);
+    }
+
+    @Override
+    public void add(Process process) {
+        int entry;
+        if (freeCount > 0) {
+            entry = freeEntries[--freeCount];
+        } else {
+            if (used == entries.length) {
+                grow();
+            }
+            entry = used++;
+        }
+        entries[entry] = process;
+        process.setHeapPosition(entry);
+        setWeight(entry, ticketsOf(process));
+        size++;
+    }
+
+    // capacity doubles; the tree is rebuilt in O(n)
+    private void grow() {
+        int capacity = entries.length * 2;
+        entries = Arrays.copyOf(entries, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        freeEntries = Arrays.copyOf(freeEntries, capacity);
+        tree = new long[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            tree[i] += weights[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    @Override
+    public Process poll() {
+        if (size == 0) return null;
+        Process winner = entries[find(nextTicket(totalTickets))];
+        release(winner.getHeapPosition());
+        return winner;
+    }
+
+    // O(log n)
+    @Override
+    public boolean remove(Process process) {
+        int entry = indexOf(process);
+        if (entry < 0) return false;
+        release(entry);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Process process) {
+        return indexOf(process) >= 0;
+    }
+
+    private void release(int entry) {
+        Process process = entries[entry];
+        setWeight(entry, 0);
+        entries[entry] = null;
+        freeEntries[freeCount++] = entry;
+        process.setHeapPosition(-1);
+        size--;
+    }
+
+    // a renice goes back to the tickets of the new priority, dropping transfers and inflation
+    @Override
+    public void changePriority(Process process, int priority) {
+        process.setPriority(priority);
+        changeTickets(process, 0);
+    }
+
+    @Override
+    public void changeTickets(Process process, int tickets) {
+        process.setTickets(tickets);
+        int entry = indexOf(process);
+        if (entry >= 0) {
+            setWeight(entry, ticketsOf(process));
+        }
+    }
+
+    // entries are stored per row and can be stale, so check the entry really holds this process
+    private int indexOf(Process process) {
+        int entry = process.getHeapPosition();
+        return entry >= 0 && entry < used && process.equals(entries[entry]) ? entry : -1;
+    }
+
+    private void setWeight(int entry, long weight) {
+        long delta = weight - weights[entry];
+        if (delta == 0) return;
+        weights[entry] = weight;
+        totalTickets += delta;
+        for (int i = entry + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // entry holding ticket number 'ticket' (0-based), by descending the tree from its top bit
+    private int find(long ticket) {
+        int position = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] <= ticket) {
+                position = next;
+                ticket -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    // uniform in [0, bound): SplitMix64 step, rejecting the top values that would bias the modulo
+    private long nextTicket(long bound) {
+        long limit = Long.MAX_VALUE - Long.MAX_VALUE % bound;
+        long value;
+        do {
+            seed += 0x9E3779B97F4A7C15L;
+            long z = seed;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            value = (z ^ (z >>> 31)) >>> 1;
+        } while (value >= limit);
+        return value % bound;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // generator state and the entry layout (PID or -1 per entry, then the free list), since
+    // which process wins a draw depends on where each one sits; tickets live in the process table
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeInt(used);
+        for (int entry = 0; entry < used; entry++) {
+            out.writeInt(entries[entry] != null ? entries[entry].getPID() : -1);
+        }
+        out.writeInt(freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            out.writeInt(freeEntries[i]);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        seed = in.readLong();
+        int count = in.readInt();
+        while (entries.length < count) {
+            grow();
+        }
+        for (int entry = 0; entry < count; entry++) {
+            int pid = in.readInt();
+            if (pid >= 0) {
+                Process process = processes.apply(pid);
+                entries[entry] = process;
+                process.setHeapPosition(entry);
+                setWeight(entry, ticketsOf(process));
+                size++;
+            }
+        }
+        used = count;
+        freeCount = in.readInt();
+        for (int i = 0; i < freeCount; i++) {
+            freeEntries[i] = in.readInt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.IntFunction;
+
+// PRIORITY_BASED: indexed binary heap, highest priority first
+class PriorityReadyQueue implements ReadyQueue {
+    private final ProcessHeap heap = new ProcessHeap(ProcessHeap.BY_PRIORITY, false);
+
+    @Override
+    public void add(Process process) {
+        heap.add(process);
+    }
+
+    @Override
+    public Process poll() {
+        return heap.poll();
+    }
+
+    // O(log n)
+    @Override
+    public boolean remove(Process process) {
+        return heap.remove(process);
+    }
+
+    @Override
+    public boolean contains(Process process) {
+        return heap.contains(process);
+    }
+
+    // O(log n): the process moves up or down the heap
+    @Override
+    public void changePriority(Process process, int priority) {
+        heap.changePriority(process, priority);
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    // heap array order: adding it back in this order moves nothing, so ties keep their order
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(heap.size());
+        for (int i = 0; i < heap.size(); i++) {
+            out.writeInt(heap.get(i).getPID());
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            heap.add(processes.apply(in.readInt()));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.IntFunction;
+
+// MIXED: highest priority level first, FIFO (round-robin) within a level.
+// One indexed heap ordered by (priority, enqueue order) instead of a deque per level,
+// so a queued process can be removed or moved to another level in O(log n).
+class PriorityRoundRobinQueue implements ReadyQueue {
+    private final ProcessHeap heap = new ProcessHeap(ProcessHeap.BY_PRIORITY, true);
+
+    @Override
+    public void add(Process process) {
+        heap.add(process);
+    }
+
+    @Override
+    public Process poll() {
+        return heap.poll();
+    }
+
+    // O(log n)
+    @Override
+    public boolean remove(Process process) {
+        return heap.remove(process);
+    }
+
+    @Override
+    public boolean contains(Process process) {
+        return heap.contains(process);
+    }
+
+    // O(log n): the process goes to the back of its new level, as the striped backend does
+    @Override
+    public void changePriority(Process process, int priority) {
+        heap.changePriority(process, priority);
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    // poll order: level by level, FIFO within a level
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(heap.size());
+        for (Process process : heap.toSortedArray()) {
+            out.writeInt(process.getPID());
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            add(processes.apply(in.readInt()));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package scheduling;
+
+import process.Process;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Indexed binary heap of processes, first in 'order' on top (highest priority, earliest deadline).
+ * Every process knows its index (Process.getHeapPosition), so a queued process can be
+ * removed or given a new priority in O(log n) instead of a linear search.
+ *   - fifoTies = false: sifting follows java.util.PriorityQueue step for step, so ties
+ *     come out in the same order a PriorityQueue would give
+ *   - fifoTies = true: ties go in enqueue order (round-robin within a priority level or deadline)
+ */
+class ProcessHeap {
+    static final Comparator<Process> BY_PRIORITY = (p1, p2) -> Integer.compare(p2.getPriority(), p1.getPriority());
+    static final Comparator<Process> BY_DEADLINE = (p1, p2) -> Integer.compare(p1.getDeadline(), p2.getDeadline());
+
+    private Process[] heap = new Process[16];
+    private long[] sequences = new long[16]; // enqueue order, only compared with fifoTies
+    private final Comparator<Process> order;
+    private final boolean fifoTies;
+    private long nextSequence = 0;
+    private int size = 0;
+
+    ProcessHeap(Comparator<Process> order, boolean fifoTies) {
+        this.order = order;
+        this.fifoTies = fifoTies;
+    }
+
+    void add(Process process) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+            sequences = Arrays.copyOf(sequences, size * 2);
+        }
+        siftUp(size++, process, nextSequence++);
+    }
+
+    Process poll() {
+        if (size == 0) return null;
+        Process result = heap[0];
+        int last = --size;
+        Process moved = heap[last];
+        long movedSequence = sequences[last];
+        heap[last] = null;
+        if (last > 0) {
+            siftDown(0, moved, movedSequence);
+        }
+        result.setHeapPosition(-1);
+        return result;
+    }
+
+    // false if the process is not in this heap
+    boolean remove(Process process) {
+        int index = indexOf(process);
+        if (index < 0) return false;
+        int last = --size;
+        if (last != index) {
+            Process moved = heap[last];
+            long movedSequence = sequences[last];
+            heap[last] = null;
+            siftDown(index, moved, movedSequence);
+            if (heap[index] == moved) {
+                siftUp(index, moved, movedSequence);
+            }
+        } else {
+            heap[last] = null;
+        }
+        process.setHeapPosition(-1);
+        return true;
+    }
+
+    boolean contains(Process process) {
+        return indexOf(process) >= 0;
+    }
+
+    // first process, null if empty
+    Process peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    // set the priority and move the process up or down to match; with fifoTies a new priority
+    // also puts it behind the processes already waiting at that priority. false if it is not in this heap
+    boolean changePriority(Process process, int priority) {
+        int index = indexOf(process);
+        boolean changed = priority != process.getPriority();
+        process.setPriority(priority);
+        if (index < 0) return false;
+        Process queued = heap[index];
+        long sequence = changed ? nextSequence++ : sequences[index];
+        siftDown(index, queued, sequence);
+        if (heap[index] == queued) {
+            siftUp(index, queued, sequence);
+        }
+        return true;
+    }
+
+    // positions are stored per row and can be stale, so check the slot really holds this process
+    private int indexOf(Process process) {
+        int index = process.getHeapPosition();
+        return index >= 0 && index < size && heap[index].equals(process) ? index : -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // heap array order
+    Process get(int index) {
+        return heap[index];
+    }
+
+    // processes in the order poll would return them
+    Process[] toSortedArray() {
+        Integer[] indexes = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, (a, b) -> compare(heap[a], sequences[a], heap[b], sequences[b]));
+        Process[] sorted = new Process[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = heap[indexes[i]];
+        }
+        return sorted;
+    }
+
+    // < 0 when x goes first
+    private int compare(Process x, long xSequence, Process y, long ySequence) {
+        int byOrder = order.compare(x, y);
+        if (byOrder != 0 || !fifoTies) return byOrder;
+        return Long.compare(xSequence, ySequence);
+    }
+
+    private void siftUp(int index, Process process, long sequence) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            Process above = heap[parent];
+            if (compare(process, sequence, above, sequences[parent]) >= 0) break;
+            place(index, above, sequences[parent]);
+            index = parent;
+        }
+        place(index, process, sequence);
+    }
+
+    private void siftDown(int index, Process process, long sequence) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && compare(heap[child], sequences[child], heap[right], sequences[right]) > 0) {
+                child = right;
+            }
+            if (compare(process, sequence, heap[child], sequences[child]) <= 0) break;
+            place(index, heap[child], sequences[child]);
+            index = child;
+        }
+        place(index, process, sequence);
+    }
+
+    private void place(int index, Process process, long sequence) {
+        heap[index] = process;
+        sequences[index] = sequence;
+        process.setHeapPosition(index);
+    }
+}
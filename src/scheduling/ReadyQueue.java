@@ -0,0 +1,61 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.IntFunction;
+
+// Ready queue backend used by Scheduler; one implementation per queueing policy
+public interface ReadyQueue {
+    // add process at the back of its level
+    void add(Process process);
+
+    // put back a process whose time quantum expired (feedback queues demote it first)
+    default void requeue(Process process) {
+        add(process);
+    }
+
+    // a process left the CPU to wait after running ranFor units of its slice (CFS charges them)
+    default void block(Process process, int ranFor) {
+    }
+
+    // remove and return the next process to run, null if empty
+    Process poll();
+
+    // take a queued process out of the queue; false if it is not queued here
+    boolean remove(Process process);
+
+    // the process is waiting in this queue
+    boolean contains(Process process);
+
+    // give a process a new priority; if it is queued here it moves to where that priority belongs
+    default void changePriority(Process process, int priority) {
+        process.setPriority(priority);
+    }
+
+    // give a process a new lottery / stride ticket count; if it is queued here its share changes at once
+    default void changeTickets(Process process, int tickets) {
+        process.setTickets(tickets);
+    }
+
+    // time slice of a process picked from this queue; fixed quantum unless the policy sizes it
+    default int timeSliceOf(Process process, int timeQuantum) {
+        return timeQuantum;
+    }
+
+    // a process in this queue should take the CPU from the running one right away (EDF)
+    default boolean preempts(Process running) {
+        return false;
+    }
+
+    int size();
+
+    boolean isEmpty();
+
+    // checkpoint: the queued PIDs in an order that rebuilds the same queue, plus the policy's own state
+    void writeState(DataOutput out) throws IOException;
+
+    // fill an empty queue from writeState output; PIDs are turned back into processes by 'processes'
+    void readState(DataInput in, IntFunction<Process> processes) throws IOException;
+}
@@ -2,27 +2,43 @@ package scheduling;
 
 import process.Process;
 import process.ProcessState;
+import process.ProcessTable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 // Scheduler: picks next process by priority + RR
 public class Scheduler {
-    private Queue<Process> readyQueue;
-    private PriorityQueue<Process> priorityQueue;
+    // Ready processes; thread-safe either through its own monitor or lock-free stripes
+    private final ReadyQueue readyQueue;
+    private final FeedbackReadyQueue feedbackQueue; // MLFQ levels, null for other algorithms
+    private final FairReadyQueue fairQueue;         // CFS tree, null for other algorithms
+    private final ShortestJobReadyQueue shortestJobQueue; // SRTF heap, null for other algorithms
+    private final LotteryReadyQueue lotteryQueue;   // LOTTERY ticket tree, null for other algorithms
+    private final StrideReadyQueue strideQueue;     // STRIDE pass heap, null for other algorithms
+    private final boolean concurrent;
+    private final boolean preemptive;               // EDF / SRTF: a queued job with an earlier deadline (shorter burst) takes the CPU
 
-    // Pick highest priority, then RR within same priority
-    private final NavigableMap<Integer, Deque<Process>> prioRrQueues;
-    private int prioRrSize;
-
-    private List<Process> allProcesses;
+    // Tables of every admitted process; their per-state counters make state queries O(1)
+    private volatile ProcessTable[] tables;
+    private volatile int tableCount;
+    private final Set<ProcessTable> knownTables;
     private SchedulingAlgorithm algorithm;
-    private int timeQuantum;  // Time slice for round-robin
-    private int currentTime;
-    private boolean running;
+    private volatile int timeQuantum;  // Time slice for round-robin
+    private volatile int currentTime;
+    private volatile boolean running;
 
     public enum SchedulingAlgorithm {
         ROUND_ROBIN("Round Robin"),
         PRIORITY_BASED("Priority Based"),
-        MIXED("Mixed (Priority with Round Robin)");
+        MIXED("Mixed (Priority with Round Robin)"),
+        MLFQ("Multi-Level Feedback Queue"),
+        CFS("Completely Fair (virtual runtime)"),
+        EDF("Earliest Deadline First"),
+        SRTF("Shortest Remaining Time First"),
+        LOTTERY("Lottery (proportional share)"),
+        STRIDE("Stride (proportional share)");
 
         private final String displayName;
 
@@ -37,114 +53,348 @@ public class Scheduler {
 
     // init scheduler
     public Scheduler(SchedulingAlgorithm algorithm, int timeQuantum) {
+        this(algorithm, timeQuantum, false);
+    }
+
+    // init scheduler; concurrent = lock-free priority-striped queues instead of one monitor
+    public Scheduler(SchedulingAlgorithm algorithm, int timeQuantum, boolean concurrent) {
         this.algorithm = algorithm;
         this.timeQuantum = timeQuantum;
-        this.readyQueue = new LinkedList<>();
-        this.priorityQueue = new PriorityQueue<>((p1, p2) -> Integer.compare(p2.getPriority(), p1.getPriority()));
-        this.prioRrQueues = new TreeMap<>(Collections.reverseOrder());
-        this.prioRrSize = 0;
-        this.allProcesses = new ArrayList<>();
+        this.concurrent = concurrent;
+        this.preemptive = algorithm == SchedulingAlgorithm.EDF || algorithm == SchedulingAlgorithm.SRTF;
+        this.feedbackQueue = algorithm == SchedulingAlgorithm.MLFQ ? new FeedbackReadyQueue(timeQuantum, this::getCurrentTime) : null;
+        this.fairQueue = algorithm == SchedulingAlgorithm.CFS ? new FairReadyQueue(timeQuantum) : null;
+        this.shortestJobQueue = algorithm == SchedulingAlgorithm.SRTF ? new ShortestJobReadyQueue(timeQuantum) : null;
+        this.lotteryQueue = algorithm == SchedulingAlgorithm.LOTTERY ? new LotteryReadyQueue() : null;
+        this.strideQueue = algorithm == SchedulingAlgorithm.STRIDE ? new StrideReadyQueue(timeQuantum) : null;
+        // Only the FIFO and priority orders can be striped; the other policies reorder processes
+        // as they run, so they always sit behind one monitor
+        if (concurrent && (algorithm == SchedulingAlgorithm.ROUND_ROBIN
+                || algorithm == SchedulingAlgorithm.PRIORITY_BASED || algorithm == SchedulingAlgorithm.MIXED)) {
+            this.readyQueue = createConcurrentQueue(algorithm);
+        } else {
+            this.readyQueue = new SynchronizedReadyQueue(createQueue(algorithm));
+        }
+        this.tables = new ProcessTable[1];
+        this.tableCount = 0;
+        this.knownTables = Collections.newSetFromMap(new IdentityHashMap<>());
         this.currentTime = 0;
         this.running = false;
     }
 
-    // add to ready queue
-    public synchronized void addProcess(Process process) {
-        process.setState(ProcessState.READY);
-        allProcesses.add(process);
-
-        if (algorithm == SchedulingAlgorithm.ROUND_ROBIN) {
-            readyQueue.add(process);
+    private ReadyQueue createQueue(SchedulingAlgorithm algorithm) {
+        if (algorithm == SchedulingAlgorithm.MLFQ) {
+            return feedbackQueue;
+        } else if (algorithm == SchedulingAlgorithm.CFS) {
+            return fairQueue;
+        } else if (algorithm == SchedulingAlgorithm.SRTF) {
+            return shortestJobQueue;
+        } else if (algorithm == SchedulingAlgorithm.LOTTERY) {
+            return lotteryQueue;
+        } else if (algorithm == SchedulingAlgorithm.STRIDE) {
+            return strideQueue;
+        } else if (algorithm == SchedulingAlgorithm.ROUND_ROBIN) {
+            return new FifoReadyQueue();
         } else if (algorithm == SchedulingAlgorithm.PRIORITY_BASED) {
-            priorityQueue.add(process);
+            return new PriorityReadyQueue();
+        } else if (algorithm == SchedulingAlgorithm.EDF) {
+            return new DeadlineReadyQueue();
         } else { // MIXED
-            prioRrQueues.computeIfAbsent(process.getPriority(), k -> new ArrayDeque<>()).addLast(process);
-            prioRrSize++;
+            return new PriorityRoundRobinQueue();
         }
     }
 
-    // pick next process
-    public synchronized Process getNextProcess() {
-        if (algorithm == SchedulingAlgorithm.ROUND_ROBIN) {
-            return readyQueue.poll();
-        } else if (algorithm == SchedulingAlgorithm.PRIORITY_BASED) {
-            return priorityQueue.poll();
-        } else { // MIXED
-            if (prioRrSize == 0) return null;
-
-            Map.Entry<Integer, Deque<Process>> entry = prioRrQueues.firstEntry();
-            while (entry != null && entry.getValue().isEmpty()) {
-                prioRrQueues.remove(entry.getKey());
-                entry = prioRrQueues.firstEntry();
-            }
-            if (entry == null) {
-                prioRrSize = 0;
-                return null;
-            }
+    private static ReadyQueue createConcurrentQueue(SchedulingAlgorithm algorithm) {
+        return new StripedReadyQueue(algorithm != SchedulingAlgorithm.ROUND_ROBIN);
+    }
 
-            Process p = entry.getValue().pollFirst();
-            prioRrSize--;
+    // add to ready queue
+    public void addProcess(Process process) {
+        ProcessTable table = process.getTable();
+        if (tableCount == 0 || tables[tableCount - 1] != table) {
+            registerTable(table);
+        }
+        process.setState(ProcessState.READY);
+        readyQueue.add(process);
+    }
 
-            if (entry.getValue().isEmpty()) {
-                prioRrQueues.remove(entry.getKey());
+    // Arrays are only appended to, so readers need no lock: count is published after the slot
+    private void registerTable(ProcessTable table) {
+        synchronized (knownTables) {
+            if (!knownTables.add(table)) return;
+            ProcessTable[] current = tables;
+            if (tableCount == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                tables = current;
             }
-            return p;
+            current[tableCount] = table;
+            tableCount = tableCount + 1;
         }
     }
 
+    // pick next process
+    public Process getNextProcess() {
+        return readyQueue.poll();
+    }
+
     // put back at end of queue (or context switch)
-    public synchronized void requeueProcess(Process process) {
+    public void requeueProcess(Process process) {
         if (!process.isComplete()) {
             process.setState(ProcessState.READY);
+            readyQueue.requeue(process);
+        }
+    }
 
-            if (algorithm == SchedulingAlgorithm.ROUND_ROBIN) {
-                readyQueue.add(process);
-            } else if (algorithm == SchedulingAlgorithm.PRIORITY_BASED) {
-                priorityQueue.add(process);
-            } else {
-                prioRrQueues.computeIfAbsent(process.getPriority(), k -> new ArrayDeque<>()).addLast(process);
-                prioRrSize++;
-            }
+    // running process leaves the CPU to wait for I/O after running ranFor units of its slice
+    public void blockProcess(Process process, int ranFor) {
+        process.setState(ProcessState.BLOCKED);
+        readyQueue.block(process, ranFor);
+    }
+
+    // blocked process is ready again (I/O done); it keeps its MLFQ level
+    public void wakeProcess(Process process) {
+        process.setState(ProcessState.READY);
+        readyQueue.add(process);
+    }
+
+    // take over a ready process from another core's queue, keeping its MLFQ level
+    public void migrateProcess(Process process) {
+        process.setState(ProcessState.READY);
+        readyQueue.add(process);
+    }
+
+    /**
+     * Renice: give a process a new priority. If it is waiting in this scheduler's queue it
+     * moves to where the new priority belongs, in O(log n) for PRIORITY_BASED, MIXED and CFS;
+     * otherwise the priority applies the next time it is queued.
+     */
+    public void changePriority(Process process, int priority) {
+        readyQueue.changePriority(process, priority);
+    }
+
+    // renice by PID; false if no admitted process has it
+    public boolean changePriority(int pid, int priority) {
+        Process process = findProcess(pid);
+        if (process == null) return false;
+        changePriority(process, priority);
+        return true;
+    }
+
+    /**
+     * Take a waiting process out of the ready queue (O(log n) for PRIORITY_BASED, MIXED and CFS).
+     * It stays READY; the caller decides where it goes next. False if it is not queued here.
+     */
+    public boolean removeProcess(Process process) {
+        return readyQueue.remove(process);
+    }
+
+    // the process is waiting in this scheduler's ready queue
+    public boolean isQueued(Process process) {
+        return readyQueue.contains(process);
+    }
+
+    // remove by PID; the removed process, or null if no process with this PID is queued here
+    public Process removeProcess(int pid) {
+        Process process = findProcess(pid);
+        return process != null && removeProcess(process) ? process : null;
+    }
+
+    /**
+     * Lottery / stride tickets of a process: set by a transfer or inflation, otherwise derived
+     * from its priority (the CFS weight, priority 5 = 1024 tickets)
+     */
+    public static int getTickets(Process process) {
+        return LotteryReadyQueue.ticketsOf(process);
+    }
+
+    /**
+     * Give a process a new ticket count (inflation / deflation); if it is queued here its share
+     * changes at once, O(log n). Other algorithms just keep the count.
+     */
+    public void changeTickets(Process process, int tickets) {
+        if (tickets < 1) {
+            throw new IllegalArgumentException("A process needs at least one ticket: " + tickets);
         }
+        readyQueue.changeTickets(process, tickets);
+    }
+
+    // a waiting process should preempt the running one (EDF: an earlier deadline is queued,
+    // SRTF: a shorter remaining burst)
+    public boolean shouldPreempt(Process running) {
+        return preemptive && readyQueue.preempts(running);
     }
 
     // see any process waiting
-    public synchronized boolean hasReadyProcesses() {
-        if (algorithm == SchedulingAlgorithm.ROUND_ROBIN) {
-            return !readyQueue.isEmpty();
-        } else if (algorithm == SchedulingAlgorithm.PRIORITY_BASED) {
-            return !priorityQueue.isEmpty();
-        } else {
-            return prioRrSize > 0;
-        }
+    public boolean hasReadyProcesses() {
+        return !readyQueue.isEmpty();
     }
 
     // queue size
-    public synchronized int getReadyQueueSize() {
-        if (algorithm == SchedulingAlgorithm.ROUND_ROBIN) {
-            return readyQueue.size();
-        } else if (algorithm == SchedulingAlgorithm.PRIORITY_BASED) {
-            return priorityQueue.size();
-        } else {
-            return prioRrSize;
-        }
+    public int getReadyQueueSize() {
+        return readyQueue.size();
     }
 
-    public synchronized List<Process> getAllProcesses() {
-        return new ArrayList<>(allProcesses);
+    // every admitted process (i.e. not NEW), in creation order
+    public List<Process> getAllProcesses() {
+        List<Process> result = new ArrayList<>();
+        int count = tableCount;
+        ProcessTable[] snapshot = tables;
+        for (int i = 0; i < count; i++) {
+            for (Process p : snapshot[i].views()) {
+                if (p.getState() != ProcessState.NEW) result.add(p);
+            }
+        }
+        return result;
     }
 
-    public synchronized List<Process> getProcessesByState(ProcessState state) {
+    // O(k) in the number of matching processes
+    public List<Process> getProcessesByState(ProcessState state) {
         List<Process> result = new ArrayList<>();
-        for (Process p : allProcesses) {
-            if (p.getState() == state) result.add(p);
+        int count = tableCount;
+        ProcessTable[] snapshot = tables;
+        for (int i = 0; i < count; i++) {
+            result.addAll(snapshot[i].viewsInState(state));
         }
         return result;
     }
 
+    // look up an admitted process by PID, null if unknown
+    public Process findProcess(int pid) {
+        int count = tableCount;
+        ProcessTable[] snapshot = tables;
+        for (int i = count - 1; i >= 0; i--) {
+            Process p = snapshot[i].findByPID(pid);
+            if (p != null) return p;
+        }
+        return null;
+    }
+
+    // O(1) per table, allocation-free
+    public int getStateCount(ProcessState state) {
+        int total = 0;
+        int count = tableCount;
+        ProcessTable[] snapshot = tables;
+        for (int i = 0; i < count; i++) {
+            total += snapshot[i].getStateCount(state);
+        }
+        return total;
+    }
+
+    // admitted processes that have not terminated yet
+    public int getActiveProcessCount() {
+        return getStateCount(ProcessState.READY)
+            + getStateCount(ProcessState.RUNNING)
+            + getStateCount(ProcessState.BLOCKED);
+    }
+
     // Getters
     public SchedulingAlgorithm getAlgorithm() { return algorithm; }
+    public boolean isConcurrent() { return concurrent; }
     public int getTimeQuantum() { return timeQuantum; }
+
+    // quantum for one process: the base quantum, its level's quantum under MLFQ, its share of the period under CFS
+    public int getTimeQuantum(Process process) {
+        return readyQueue.timeSliceOf(process, timeQuantum);
+    }
+
+    /**
+     * Change the quantum during a run; a running process sees it at its next expiry check.
+     * Under MLFQ every level's quantum scales with it, under CFS the minimum granularity
+     * (and the target latency, keeping their ratio).
+     */
+    public void setTimeQuantum(int timeQuantum) {
+        this.timeQuantum = Math.max(1, timeQuantum);
+        if (feedbackQueue != null) {
+            synchronized (readyQueue) {
+                feedbackQueue.setBaseQuantum(this.timeQuantum);
+            }
+        } else if (fairQueue != null) {
+            synchronized (readyQueue) {
+                fairQueue.setMinGranularity(this.timeQuantum);
+            }
+        } else if (strideQueue != null) {
+            synchronized (readyQueue) {
+                strideQueue.setTimeQuantum(this.timeQuantum);
+            }
+        }
+    }
+
+    /**
+     * MLFQ tuning: move every process to the top level every boostInterval time units,
+     * and promote a process one level after it waited agingThreshold units
+     */
+    public void setFeedbackTuning(int boostInterval, int agingThreshold) {
+        if (feedbackQueue == null) {
+            throw new IllegalStateException("Feedback tuning only applies to " + SchedulingAlgorithm.MLFQ.getDisplayName());
+        }
+        synchronized (readyQueue) {
+            feedbackQueue.configure(boostInterval, agingThreshold);
+        }
+    }
+
+    /**
+     * CFS tuning: the period that every runnable process should run within, and the
+     * shortest slice a process gets when the period is split between many processes
+     */
+    public void setFairTuning(int targetLatency, int minGranularity) {
+        if (fairQueue == null) {
+            throw new IllegalStateException("Fair tuning only applies to " + SchedulingAlgorithm.CFS.getDisplayName());
+        }
+        synchronized (readyQueue) {
+            fairQueue.configure(targetLatency, minGranularity);
+        }
+    }
+
+    /**
+     * Seed of the LOTTERY draws; the same seed and workload give the same run
+     */
+    public void setLotterySeed(long seed) {
+        if (lotteryQueue == null) {
+            throw new IllegalStateException("A lottery seed only applies to " + SchedulingAlgorithm.LOTTERY.getDisplayName());
+        }
+        synchronized (readyQueue) {
+            lotteryQueue.setSeed(seed);
+        }
+    }
+
+    /**
+     * SRTF burst prediction: with alpha > 0 the scheduler does not look at the true burst but
+     * predicts it as alpha * lastBurst + (1 - alpha) * previousPrediction, starting from
+     * initialPrediction; alpha = 0 keys on the true remaining burst (the default)
+     */
+    public void setBurstPrediction(double alpha, int initialPrediction) {
+        if (shortestJobQueue == null) {
+            throw new IllegalStateException("Burst prediction only applies to " + SchedulingAlgorithm.SRTF.getDisplayName());
+        }
+        synchronized (readyQueue) {
+            shortestJobQueue.configure(alpha, initialPrediction);
+        }
+    }
+
+    /**
+     * Checkpoint: quantum, clock and the ready queue in order. Only processes of a single
+     * table can be written (the kernel's); readState registers that table again.
+     */
+    public void writeState(DataOutput out) throws IOException {
+        if (tableCount > 1) {
+            throw new IllegalStateException("Cannot checkpoint a scheduler holding processes of " + tableCount + " tables");
+        }
+        out.writeInt(timeQuantum);
+        out.writeInt(currentTime);
+        out.writeBoolean(tableCount == 1);
+        readyQueue.writeState(out);
+    }
+
+    // restore into a new, empty scheduler of the same algorithm
+    public void readState(DataInput in, ProcessTable table) throws IOException {
+        timeQuantum = in.readInt();
+        currentTime = in.readInt();
+        if (in.readBoolean()) {
+            registerTable(table);
+        }
+        readyQueue.readState(in, table::findByPID);
+    }
+
     public int getCurrentTime() { return currentTime; }
     public void setCurrentTime(int time) { this.currentTime = time; }
     public void incrementCurrentTime() { this.currentTime++; }
@@ -0,0 +1,140 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * SRTF: indexed heap keyed on the CPU time a process still needs in its current burst,
+ * FIFO among equal keys. A queued process with a shorter key preempts the running one,
+ * and there is no quantum.
+ * With burst prediction on (alpha > 0) the true burst is treated as unknown: the key is
+ * the predicted burst minus the time already run in it, where the prediction is the
+ * exponential average tau = alpha * lastBurst + (1 - alpha) * tau, updated whenever a
+ * CPU burst ends in an I/O request (initialPrediction before the first one).
+ */
+class ShortestJobReadyQueue implements ReadyQueue {
+    private ProcessHeap heap;
+    private double alpha;          // 0 = key on the true remaining burst
+    private int initialPrediction;
+
+    ShortestJobReadyQueue(int timeQuantum) {
+        this.alpha = 0;
+        this.initialPrediction = Math.max(1, timeQuantum);
+        this.heap = newHeap();
+    }
+
+    private ProcessHeap newHeap() {
+        return new ProcessHeap(Comparator.comparingInt(this::keyOf), true);
+    }
+
+    // keys change with the settings, so the queued processes are sorted in again
+    void configure(double alpha, int initialPrediction) {
+        if (alpha < 0 || alpha > 1) {
+            throw new IllegalArgumentException("Prediction weight must be within [0, 1]: " + alpha);
+        }
+        List<Process> queued = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            queued.add(heap.poll());
+        }
+        this.alpha = alpha;
+        this.initialPrediction = Math.max(1, initialPrediction);
+        this.heap = newHeap();
+        for (Process process : queued) {
+            heap.add(process);
+        }
+    }
+
+    private int keyOf(Process process) {
+        if (alpha == 0) {
+            return process.getBurstRemainingTime();
+        }
+        int predicted = process.getPredictedBurst() > 0 ? process.getPredictedBurst() : initialPrediction;
+        int ran = process.getCpuBurstLength() - process.getBurstRemainingTime();
+        return Math.max(0, predicted - ran);
+    }
+
+    @Override
+    public void add(Process process) {
+        heap.add(process);
+    }
+
+    // the CPU burst just ended in an I/O request: fold its length into the prediction
+    @Override
+    public void block(Process process, int ranFor) {
+        if (alpha == 0) return;
+        int predicted = process.getPredictedBurst() > 0 ? process.getPredictedBurst() : initialPrediction;
+        long next = Math.round(alpha * process.getCpuBurstLength() + (1 - alpha) * predicted);
+        process.setPredictedBurst((int) Math.max(1, Math.min(Integer.MAX_VALUE, next)));
+    }
+
+    @Override
+    public Process poll() {
+        return heap.poll();
+    }
+
+    // O(log n)
+    @Override
+    public boolean remove(Process process) {
+        return heap.remove(process);
+    }
+
+    @Override
+    public boolean contains(Process process) {
+        return heap.contains(process);
+    }
+
+    // the queue ignores priorities, only the burst orders it
+    @Override
+    public void changePriority(Process process, int priority) {
+        process.setPriority(priority);
+    }
+
+    // no quantum: a process runs until its burst ends or a shorter one arrives
+    @Override
+    public int timeSliceOf(Process process, int timeQuantum) {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean preempts(Process running) {
+        Process first = heap.peek();
+        return first != null && keyOf(first) < keyOf(running);
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    // prediction settings, then the PIDs in poll order (predictions live in the process table)
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(alpha);
+        out.writeInt(initialPrediction);
+        out.writeInt(heap.size());
+        for (Process process : heap.toSortedArray()) {
+            out.writeInt(process.getPID());
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        alpha = in.readDouble();
+        initialPrediction = in.readInt();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            heap.add(processes.apply(in.readInt()));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.function.IntFunction;
+
+/**
+ * Stride scheduling: the deterministic counterpart of lottery scheduling.
+ *   - a process's stride is STRIDE1 / tickets, and its pass advances by stride for every
+ *     unit it runs (the pass is kept in Process.getVirtualRuntime)
+ *   - the lowest pass runs next, FIFO among equal passes, for one quantum
+ *   - new and waking processes start no earlier than the global pass (the pass of the last
+ *     process picked), so time spent away is not banked
+ *   - when a queued process's tickets change, the pass it still has to go is rescaled to
+ *     the new stride, so the change shows up at its next selection
+ */
+class StrideReadyQueue implements ReadyQueue {
+    static final long STRIDE1 = 1L << 32;
+
+    private static final Comparator<Process> BY_PASS = Comparator.comparingLong(Process::getVirtualRuntime);
+
+    private final ProcessHeap heap = new ProcessHeap(BY_PASS, true);
+    private long globalPass = 0;
+    private int timeQuantum;
+
+    StrideReadyQueue(int timeQuantum) {
+        this.timeQuantum = Math.max(1, timeQuantum);
+    }
+
+    void setTimeQuantum(int timeQuantum) {
+        this.timeQuantum = Math.max(1, timeQuantum);
+    }
+
+    static long strideOf(Process process) {
+        return STRIDE1 / LotteryReadyQueue.ticketsOf(process);
+    }
+
+    @Override
+    public void add(Process process) {
+        if (process.getVirtualRuntime() < globalPass) {
+            process.setVirtualRuntime(globalPass);
+        }
+        heap.add(process);
+    }
+
+    // the quantum ran out: advance by a full quantum
+    @Override
+    public void requeue(Process process) {
+        charge(process, timeQuantum);
+        heap.add(process);
+    }
+
+    // going to sleep: advance by the part of the quantum it used; it rejoins through add
+    @Override
+    public void block(Process process, int ranFor) {
+        charge(process, ranFor);
+    }
+
+    private void charge(Process process, int ranFor) {
+        process.setVirtualRuntime(process.getVirtualRuntime() + ranFor * strideOf(process));
+    }
+
+    @Override
+    public Process poll() {
+        Process process = heap.poll();
+        if (process != null) {
+            globalPass = Math.max(globalPass, process.getVirtualRuntime());
+        }
+        return process;
+    }
+
+    // O(log n)
+    @Override
+    public boolean remove(Process process) {
+        return heap.remove(process);
+    }
+
+    @Override
+    public boolean contains(Process process) {
+        return heap.contains(process);
+    }
+
+    // a renice goes back to the tickets of the new priority, dropping transfers and inflation
+    @Override
+    public void changePriority(Process process, int priority) {
+        changeTickets(process, priority, 0);
+    }
+
+    @Override
+    public void changeTickets(Process process, int tickets) {
+        changeTickets(process, process.getPriority(), tickets);
+    }
+
+    private void changeTickets(Process process, int priority, int tickets) {
+        boolean queued = heap.remove(process);
+        long oldStride = strideOf(process);
+        process.setPriority(priority);
+        process.setTickets(tickets);
+        if (queued) {
+            long remaining = process.getVirtualRuntime() - globalPass;
+            process.setVirtualRuntime(globalPass + (long) ((double) remaining * strideOf(process) / oldStride));
+            heap.add(process);
+        }
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    // passes live in the process table, so the PIDs in poll order rebuild the heap
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(timeQuantum);
+        out.writeLong(globalPass);
+        out.writeInt(heap.size());
+        for (Process process : heap.toSortedArray()) {
+            out.writeInt(process.getPID());
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        timeQuantum = in.readInt();
+        globalPass = in.readLong();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            heap.add(processes.apply(in.readInt()));
+        }
+    }
+}
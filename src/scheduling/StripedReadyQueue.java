@@ -0,0 +1,142 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Lock-free ready queue striped by priority level.
+ * Each level is its own ConcurrentLinkedQueue, so producers and consumers working
+ * on different priorities never touch the same memory. Order is highest level first,
+ * FIFO within a level. Priorities outside [0, LEVELS) are clamped to the nearest level.
+ */
+class StripedReadyQueue implements ReadyQueue {
+    static final int LEVELS = 64;
+
+    private final ConcurrentLinkedQueue<Process>[] stripes;
+    private final boolean prioritized; // false = single FIFO stripe (ROUND_ROBIN)
+    private final LongAdder size = new LongAdder();
+    // Hint of levels that may be non-empty; a set bit can be stale, a non-empty level always has its bit set
+    private final AtomicLong nonEmpty = new AtomicLong();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    StripedReadyQueue(boolean prioritized) {
+        this.prioritized = prioritized;
+        this.stripes = new ConcurrentLinkedQueue[prioritized ? LEVELS : 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    private int stripeOf(Process process) {
+        if (!prioritized) return 0;
+        return Math.max(0, Math.min(LEVELS - 1, process.getPriority()));
+    }
+
+    private void markNonEmpty(int level) {
+        long bit = 1L << level;
+        long bits = nonEmpty.get();
+        while ((bits & bit) == 0 && !nonEmpty.compareAndSet(bits, bits | bit)) {
+            bits = nonEmpty.get();
+        }
+    }
+
+    @Override
+    public void add(Process process) {
+        int level = stripeOf(process);
+        stripes[level].offer(process);
+        markNonEmpty(level);
+        size.increment();
+    }
+
+    @Override
+    public Process poll() {
+        long bits = nonEmpty.get();
+        while (bits != 0) {
+            int level = 63 - Long.numberOfLeadingZeros(bits);
+            Process p = stripes[level].poll();
+            if (p != null) {
+                size.decrement();
+                return p;
+            }
+            // Level drained: clear its bit, then re-check in case an add raced with us
+            nonEmpty.getAndUpdate(b -> b & ~(1L << level));
+            if (!stripes[level].isEmpty()) {
+                markNonEmpty(level);
+                continue;
+            }
+            bits &= ~(1L << level);
+        }
+        return null;
+    }
+
+    // O(n) in the process's stripe
+    @Override
+    public boolean remove(Process process) {
+        if (!stripes[stripeOf(process)].remove(process)) return false;
+        size.decrement();
+        return true;
+    }
+
+    // O(n) in the process's stripe
+    @Override
+    public boolean contains(Process process) {
+        return stripes[stripeOf(process)].contains(process);
+    }
+
+    // a new priority puts the process at the back of its stripe, even when the level is the same
+    // after clamping (as the sequential queue does); a poller may take it first, then only the priority changes
+    @Override
+    public void changePriority(Process process, int priority) {
+        boolean moved = prioritized && priority != process.getPriority() && remove(process);
+        process.setPriority(priority);
+        if (moved) {
+            add(process);
+        }
+    }
+
+    // approximate while other threads are adding / polling
+    @Override
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        long bits = nonEmpty.get();
+        while (bits != 0) {
+            int level = 63 - Long.numberOfLeadingZeros(bits);
+            if (!stripes[level].isEmpty()) return false;
+            bits &= ~(1L << level);
+        }
+        return true;
+    }
+
+    // poll order, highest stripe first; only consistent while no other thread uses the queue
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        List<Process> queued = new ArrayList<>();
+        for (int level = stripes.length - 1; level >= 0; level--) {
+            queued.addAll(stripes[level]);
+        }
+        out.writeInt(queued.size());
+        for (Process process : queued) {
+            out.writeInt(process.getPID());
+        }
+    }
+
+    @Override
+    public void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            add(processes.apply(in.readInt()));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package scheduling;
+
+import process.Process;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.IntFunction;
+
+// Wraps a single-threaded backend behind its own monitor
+class SynchronizedReadyQueue implements ReadyQueue {
+    private final ReadyQueue delegate;
+
+    SynchronizedReadyQueue(ReadyQueue delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void add(Process process) {
+        delegate.add(process);
+    }
+
+    @Override
+    public synchronized void requeue(Process process) {
+        delegate.requeue(process);
+    }
+
+    @Override
+    public synchronized void block(Process process, int ranFor) {
+        delegate.block(process, ranFor);
+    }
+
+    @Override
+    public synchronized Process poll() {
+        return delegate.poll();
+    }
+
+    @Override
+    public synchronized boolean remove(Process process) {
+        return delegate.remove(process);
+    }
+
+    @Override
+    public synchronized boolean contains(Process process) {
+        return delegate.contains(process);
+    }
+
+    @Override
+    public synchronized void changePriority(Process process, int priority) {
+        delegate.changePriority(process, priority);
+    }
+
+    @Override
+    public synchronized void changeTickets(Process process, int tickets) {
+        delegate.changeTickets(process, tickets);
+    }
+
+    @Override
+    public synchronized int timeSliceOf(Process process, int timeQuantum) {
+        return delegate.timeSliceOf(process, timeQuantum);
+    }
+
+    @Override
+    public synchronized boolean preempts(Process running) {
+        return delegate.preempts(running);
+    }
+
+    @Override
+    public synchronized int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public synchronized void writeState(DataOutput out) throws IOException {
+        delegate.writeState(out);
+    }
+
+    @Override
+    public synchronized void readState(DataInput in, IntFunction<Process> processes) throws IOException {
+        delegate.readState(in, processes);
+    }
+}